@@ -0,0 +1,67 @@
+package com.example.Backend.config;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.security.Key;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+// a polling client replaying the same bearer token, with and without the verified-token cache
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    @Param({ "true", "false" })
+    public boolean cached;
+
+    private final FilterChain filterChain = (request, response) -> {
+    };
+
+    private JWTAuthenticationFilter filter;
+    private String authorizationHeader;
+
+    @Setup
+    public void setUp() {
+        Key key = Keys.hmacShaKeyFor("aslsdadadq9iqpweipqowie293i112313sdadadadqweqe1smgs90329109310".getBytes());
+        filter = new JWTAuthenticationFilter(key, cached ? 10_000 : 0);
+
+        Date now = new Date();
+        String token = Jwts.builder().setSubject("benchmark-user").claim("name", "Benchmark User")
+                .claim("email", "benchmark@example.com").setIssuedAt(now)
+                .setExpiration(new Date(now.getTime() + TimeUnit.HOURS.toMillis(1))).signWith(key).compact();
+        authorizationHeader = "Bearer " + token;
+    }
+
+    @Benchmark
+    public Authentication authenticateRequest() throws Exception {
+        // a fresh request every time, OncePerRequestFilter would skip one it has already seen
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/nutrition/progress/daily/benchmark-user");
+        request.addHeader("Authorization", authorizationHeader);
+        filter.doFilter(request, new MockHttpServletResponse(), filterChain);
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+}
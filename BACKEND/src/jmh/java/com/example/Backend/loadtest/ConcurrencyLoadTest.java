@@ -0,0 +1,175 @@
+package com.example.Backend.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Closed-loop load generator against a running backend: every virtual user sends the next request as soon as
+ * the previous one returns, at each of the given concurrency levels. Start the backend once with
+ * {@code VIRTUAL_THREADS=false} and once with {@code VIRTUAL_THREADS=true} and compare the tables.
+ *
+ * <pre>
+ * mvn -Pbenchmarks test-compile exec:exec -Dbenchmark.main=com.example.Backend.loadtest.ConcurrencyLoadTest \
+ *     -Dbenchmark.args="url=http://localhost:8080/api/nutrition/progress/daily/USER_ID?date=2025-03-06 \
+ *     token=JWT concurrency=50,200,800 duration=20"
+ * </pre>
+ *
+ * With {@code compare=URL} a second endpoint is measured at every level right after the first, which gives a
+ * side-by-side table of the servlet and the reactive api of one backend started with {@code REACTIVE_API=true}:
+ *
+ * <pre>
+ *     -Dbenchmark.args="url=http://localhost:8080/api/nutrition/progress/daily/USER_ID?date=2025-03-06 \
+ *     compare=http://localhost:8080/api/reactive/nutrition/progress/daily/USER_ID?date=2025-03-06 token=JWT"
+ * </pre>
+ */
+public final class ConcurrencyLoadTest {
+
+    private ConcurrencyLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        URI target = URI.create(required(options, "url"));
+        URI compare = options.containsKey("compare") ? URI.create(options.get("compare")) : null;
+        String token = options.get("token");
+        Duration duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "20")));
+        int[] concurrencyLevels = Arrays.stream(options.getOrDefault("concurrency", "50,200,800").split(","))
+                .mapToInt(Integer::parseInt)
+                .toArray();
+
+        HttpClient client = newClient();
+        if (compare == null) {
+            System.out.println("GET " + target);
+            System.out.println(Result.HEADER);
+            for (int concurrency : concurrencyLevels) {
+                System.out.println(run(client, get(target, token), concurrency, duration).format(concurrency));
+            }
+            return;
+        }
+
+        System.out.println("A: GET " + target);
+        System.out.println("B: GET " + compare);
+        System.out.println("   " + Result.HEADER);
+        for (int concurrency : concurrencyLevels) {
+            System.out.println("A  " + run(client, get(target, token), concurrency, duration).format(concurrency));
+            System.out.println("B  " + run(client, get(compare, token), concurrency, duration).format(concurrency));
+        }
+    }
+
+    static Supplier<HttpRequest> get(URI target, String token) {
+        return () -> {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(target).timeout(Duration.ofSeconds(30)).GET();
+            if (token != null) {
+                builder.header("Authorization", "Bearer " + token);
+            }
+            return builder.build();
+        };
+    }
+
+    public static HttpClient newClient() {
+        return HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    public static Result run(HttpClient client, Supplier<HttpRequest> request, int concurrency, Duration duration)
+            throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Future<long[]>> workers = new ArrayList<>(concurrency);
+        int[] errors = new int[concurrency];
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int worker = 0; worker < concurrency; worker++) {
+                int index = worker;
+                workers.add(executor.submit(() -> {
+                    long[] latencies = new long[1024];
+                    int count = 0;
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request.get(),
+                                    HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() >= 400) {
+                                errors[index]++;
+                                continue;
+                            }
+                        } catch (Exception e) {
+                            errors[index]++;
+                            continue;
+                        }
+                        if (count == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, count * 2);
+                        }
+                        latencies[count++] = System.nanoTime() - start;
+                    }
+                    return Arrays.copyOf(latencies, count);
+                }));
+            }
+
+            long[][] perWorker = new long[concurrency][];
+            for (int worker = 0; worker < concurrency; worker++) {
+                perWorker[worker] = workers.get(worker).get();
+            }
+            return Result.of(perWorker, Arrays.stream(errors).sum(), duration);
+        }
+    }
+
+    static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator > 0) {
+                options.put(arg.substring(0, separator), arg.substring(separator + 1));
+            }
+        }
+        return options;
+    }
+
+    static String required(Map<String, String> options, String name) {
+        String value = options.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing required option " + name + "=...");
+        }
+        return value;
+    }
+
+    public record Result(long requests, long errors, double throughput, double p50Millis, double p95Millis,
+            double p99Millis, double maxMillis) {
+
+        static final String HEADER = String.format("%12s %10s %8s %10s %9s %9s %9s %9s",
+                "concurrency", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+
+        static Result of(long[][] perWorker, long errors, Duration duration) {
+            long[] latencies = Arrays.stream(perWorker).flatMapToLong(Arrays::stream).sorted().toArray();
+            if (latencies.length == 0) {
+                return new Result(0, errors, 0, 0, 0, 0, 0);
+            }
+            return new Result(latencies.length, errors, latencies.length / (double) duration.toSeconds(),
+                    millis(latencies, 0.50), millis(latencies, 0.95), millis(latencies, 0.99),
+                    latencies[latencies.length - 1] / 1_000_000.0);
+        }
+
+        private static double millis(long[] sortedLatencies, double percentile) {
+            int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(index, 0)] / 1_000_000.0;
+        }
+
+        public String format(int concurrency) {
+            return String.format("%12d %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f",
+                    concurrency, requests, errors, throughput, p50Millis, p95Millis, p99Millis, maxMillis);
+        }
+    }
+}
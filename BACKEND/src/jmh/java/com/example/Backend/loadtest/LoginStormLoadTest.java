@@ -0,0 +1,63 @@
+package com.example.Backend.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Measures a read endpoint on its own and then again while a second set of virtual users keeps posting logins,
+ * to check that bcrypt stays on its own pool: the read latency should barely move, and logins beyond what the
+ * pool and its queue take are answered with 503 (counted as errors in the login row).
+ *
+ * <pre>
+ * mvn -Pbenchmarks test-compile exec:exec -Dbenchmark.main=com.example.Backend.loadtest.LoginStormLoadTest \
+ *     -Dbenchmark.args="url=http://localhost:8080/api/nutrition/progress/daily/USER_ID?date=2025-03-06 \
+ *     token=JWT login=http://localhost:8080/api/auth/login email=USER_EMAIL password=USER_PASSWORD \
+ *     concurrency=50 logins=200 duration=20"
+ * </pre>
+ */
+public final class LoginStormLoadTest {
+
+    private LoginStormLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = ConcurrencyLoadTest.parseOptions(args);
+        URI target = URI.create(ConcurrencyLoadTest.required(options, "url"));
+        URI login = URI.create(ConcurrencyLoadTest.required(options, "login"));
+        String token = options.get("token");
+        String body = String.format("{\"email\":\"%s\",\"password\":\"%s\"}",
+                ConcurrencyLoadTest.required(options, "email"), ConcurrencyLoadTest.required(options, "password"));
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "50"));
+        int logins = Integer.parseInt(options.getOrDefault("logins", "200"));
+        Duration duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "20")));
+
+        HttpClient client = ConcurrencyLoadTest.newClient();
+        Supplier<HttpRequest> read = ConcurrencyLoadTest.get(target, token);
+        Supplier<HttpRequest> storm = () -> HttpRequest.newBuilder(login)
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+
+        System.out.println("GET  " + target);
+        System.out.println("POST " + login + " (" + logins + " concurrent logins)");
+        System.out.println("                " + ConcurrencyLoadTest.Result.HEADER);
+        System.out.println("read alone      " + ConcurrencyLoadTest.run(client, read, concurrency, duration)
+                .format(concurrency));
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<ConcurrencyLoadTest.Result> loginResult = executor.submit(
+                    () -> ConcurrencyLoadTest.run(client, storm, logins, duration));
+            ConcurrencyLoadTest.Result readResult = ConcurrencyLoadTest.run(client, read, concurrency, duration);
+            System.out.println("read in storm   " + readResult.format(concurrency));
+            System.out.println("logins          " + loginResult.get().format(logins));
+        }
+    }
+}
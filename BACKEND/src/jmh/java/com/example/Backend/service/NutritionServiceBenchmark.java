@@ -0,0 +1,137 @@
+package com.example.Backend.service;
+
+import com.example.Backend.dto.FoodLogDTO;
+import com.example.Backend.dto.WaterLogDTO;
+import com.example.Backend.model.FoodLog;
+import com.example.Backend.model.User;
+import com.example.Backend.model.WaterLog;
+import com.example.Backend.repository.DailyTotalsRepository;
+import com.example.Backend.repository.NutritionRollupRepository;
+import com.example.Backend.support.InMemoryNutritionStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+// NutritionService against in-memory repositories, with 10/100/1000 food and water entries on each day
+// of the benchmarked week; writes are not retained so the data set stays the same size throughout
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NutritionServiceBenchmark {
+
+    private static final String USER_ID = "benchmark-user";
+    private static final LocalDate WEEK_START = LocalDate.of(2025, 3, 3);
+    private static final String[] MEAL_TYPES = { "breakfast", "lunch", "dinner", "snack" };
+
+    @Param({ "10", "100", "1000" })
+    public int entriesPerDay;
+
+    private ParallelQueryExecutor queryExecutor;
+    private NutritionService nutritionService;
+    private FoodLogDTO foodLogDTO;
+    private WaterLogDTO waterLogDTO;
+
+    @Setup
+    public void setUp() {
+        InMemoryNutritionStore store = new InMemoryNutritionStore();
+
+        User user = new User();
+        user.setId(USER_ID);
+        user.setName("Benchmark User");
+        user.setDailyCalorieGoal(2200);
+        user.setDailyWaterGoal(8);
+        store.users.seed(user);
+
+        for (int day = 0; day < 7; day++) {
+            LocalDate date = WEEK_START.plusDays(day);
+            for (int entry = 0; entry < entriesPerDay; entry++) {
+                FoodLog foodLog = new FoodLog();
+                foodLog.setUserId(USER_ID);
+                foodLog.setDate(date);
+                foodLog.setMealType(MEAL_TYPES[entry % MEAL_TYPES.length]);
+                foodLog.setFoodName("Food " + entry);
+                foodLog.setCalories(50 + entry % 400);
+                store.foodLogs.seed(foodLog);
+
+                WaterLog waterLog = new WaterLog();
+                waterLog.setUserId(USER_ID);
+                waterLog.setDate(date);
+                waterLog.setGlasses(1);
+                store.waterLogs.seed(waterLog);
+            }
+        }
+        store.foodLogs.discardWrites();
+        store.waterLogs.discardWrites();
+
+        queryExecutor = new ParallelQueryExecutor(false, 8, 1000, 5000);
+        DailyTotalsRepository dailyTotalsRepository = store.dailyTotalsRepository();
+        NutritionRollupRepository rollupRepository = store.nutritionRollupRepository();
+        nutritionService = new NutritionService(store.foodLogRepository(), store.waterLogRepository(),
+                store.userCache(), dailyTotalsRepository, store.progressAggregationRepository(),
+                store.foodLogHistoryRepository(), rollupRepository,
+                new NutritionDeltaWriter(dailyTotalsRepository, rollupRepository), queryExecutor,
+                new DailyProgressPublisher(60000, 5, 32, 1, false), store.frequentFoodsCache(),
+                new SimpleMeterRegistry());
+
+        foodLogDTO = new FoodLogDTO();
+        foodLogDTO.setDate(WEEK_START.plusDays(3));
+        foodLogDTO.setMealType("lunch");
+        foodLogDTO.setFoodName("Rice + Curry");
+        foodLogDTO.setCalories(650);
+
+        waterLogDTO = new WaterLogDTO();
+        waterLogDTO.setDate(WEEK_START.plusDays(3));
+        waterLogDTO.setGlasses(1);
+    }
+
+    @TearDown
+    public void tearDown() {
+        queryExecutor.shutdown();
+    }
+
+    @Benchmark
+    public Object logFood() {
+        return nutritionService.logFood(USER_ID, foodLogDTO);
+    }
+
+    @Benchmark
+    public Object logWater() {
+        return nutritionService.logWater(USER_ID, waterLogDTO);
+    }
+
+    @Benchmark
+    public Object getDailyProgress() {
+        return nutritionService.getDailyProgress(USER_ID, WEEK_START.plusDays(3), true);
+    }
+
+    @Benchmark
+    public Object getDailyProgressSummary() {
+        return nutritionService.getDailyProgress(USER_ID, WEEK_START.plusDays(3), false);
+    }
+
+    @Benchmark
+    public Object getWeeklyProgress() {
+        return nutritionService.getWeeklyProgress(USER_ID, WEEK_START);
+    }
+
+    @Benchmark
+    public Object getRangeProgress() {
+        return nutritionService.getRangeProgress(USER_ID, WEEK_START, WEEK_START.plusDays(6));
+    }
+}
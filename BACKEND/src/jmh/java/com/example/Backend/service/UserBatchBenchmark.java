@@ -0,0 +1,99 @@
+package com.example.Backend.service;
+
+import com.example.Backend.model.User;
+import com.example.Backend.repository.UserRepository;
+import com.example.Backend.support.InMemoryNutritionStore;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.security.Key;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// /api/user/batch with 10/100/1000 ids of users with long skill lists: resolving through the caches with a
+// warm or an always-missing profile cache, against the previous findAllById + full conversion
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserBatchBenchmark {
+
+    private static final int USERS = 5000;
+
+    @Param({ "10", "100", "1000" })
+    public int ids;
+
+    private UserService warmService;
+    private UserService coldService;
+    private UserRepository userRepository;
+    private List<String> requestedIds;
+
+    @Setup
+    public void setUp() {
+        InMemoryNutritionStore store = new InMemoryNutritionStore();
+        for (int i = 0; i < USERS; i++) {
+            User user = new User();
+            user.setId("user-" + i);
+            user.setName("User " + i);
+            user.setEmail("user" + i + "@example.com");
+            user.setBio("Bio of user " + i);
+            List<String> skills = new ArrayList<>();
+            for (int skill = 0; skill < 50; skill++) {
+                skills.add("skill-" + skill);
+            }
+            user.setSkills(skills);
+            store.users.seed(user);
+        }
+        userRepository = store.userRepository();
+
+        PasswordHasher passwordHasher = new PasswordHasher(new BCryptPasswordEncoder(), 10, 0, 64, 5000);
+        Key key = Keys.hmacShaKeyFor("aslsdadadq9iqpweipqowie293i112313sdadadadqweqe1smgs90329109310".getBytes());
+        warmService = new UserService(userRepository, store.userCache(), store.followRepository(),
+                store.userProfileRepository(), passwordHasher, key);
+        // a cache that keeps nothing, every id is read through the profile query
+        coldService = new UserService(userRepository, new UserCache(userRepository, 0, 300),
+                store.followRepository(), store.userProfileRepository(), passwordHasher, key);
+
+        List<String> allIds = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            allIds.add("user-" + i);
+        }
+        Collections.shuffle(allIds, new Random(42));
+        requestedIds = allIds.subList(0, ids);
+        warmService.getUsersByIds(requestedIds);
+    }
+
+    @Benchmark
+    public Object resolveWarm() {
+        return warmService.getUsersByIds(requestedIds);
+    }
+
+    @Benchmark
+    public Object resolveCold() {
+        return coldService.getUsersByIds(requestedIds);
+    }
+
+    @Benchmark
+    public Object findAllByIdBaseline() {
+        return userRepository.findAllById(requestedIds).stream()
+                .map(warmService::convertToProfileDTO)
+                .collect(Collectors.toList());
+    }
+}
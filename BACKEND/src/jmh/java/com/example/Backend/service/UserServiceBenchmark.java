@@ -0,0 +1,51 @@
+package com.example.Backend.service;
+
+import com.example.Backend.model.User;
+import com.example.Backend.support.InMemoryNutritionStore;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.security.Key;
+import java.util.concurrent.TimeUnit;
+
+// token minting as done for every login and registration
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserServiceBenchmark {
+
+    private UserService userService;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        InMemoryNutritionStore store = new InMemoryNutritionStore();
+        PasswordHasher passwordHasher = new PasswordHasher(new BCryptPasswordEncoder(), 10, 0, 64, 5000);
+        Key key = Keys.hmacShaKeyFor("aslsdadadq9iqpweipqowie293i112313sdadadadqweqe1smgs90329109310".getBytes());
+        userService = new UserService(store.userRepository(), store.userCache(), store.followRepository(),
+                store.userProfileRepository(), passwordHasher, key);
+
+        user = new User();
+        user.setId("benchmark-user");
+        user.setName("Benchmark User");
+        user.setEmail("benchmark@example.com");
+    }
+
+    @Benchmark
+    public String generateJwtToken() {
+        return userService.generateJwtToken(user);
+    }
+}
@@ -0,0 +1,467 @@
+package com.example.Backend.support;
+
+import com.example.Backend.dto.FoodLogEntryDTO;
+import com.example.Backend.dto.UserProfileDTO;
+import com.example.Backend.dto.WaterLogEntryDTO;
+import com.example.Backend.model.DailyTotals;
+import com.example.Backend.model.Follow;
+import com.example.Backend.model.FoodLog;
+import com.example.Backend.model.FrequentFoods;
+import com.example.Backend.model.NutrientTotals;
+import com.example.Backend.model.NutritionRollup;
+import com.example.Backend.model.User;
+import com.example.Backend.model.WaterLog;
+import com.example.Backend.repository.DailyTotalsRepository;
+import com.example.Backend.repository.FollowRepository;
+import com.example.Backend.repository.FoodFrequencyRepository;
+import com.example.Backend.repository.FoodLogHistoryRepository;
+import com.example.Backend.repository.FoodLogRepository;
+import com.example.Backend.repository.NutritionGoals;
+import com.example.Backend.repository.NutritionRollupRepository;
+import com.example.Backend.repository.FrequentFoodsRepository;
+import com.example.Backend.repository.ProgressAggregationRepository;
+import com.example.Backend.repository.UserProfileRepository;
+import com.example.Backend.repository.UserRepository;
+import com.example.Backend.repository.WaterLogRepository;
+import com.example.Backend.service.FrequentFoodsCache;
+import com.example.Backend.service.UserCache;
+import org.bson.types.ObjectId;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory versions of everything {@link com.example.Backend.service.NutritionService} talks to. The
+ * MongoTemplate-backed repositories are subclassed with their queries answered from the fake collections.
+ */
+public class InMemoryNutritionStore {
+
+    public final InMemoryRepository<User> users = new InMemoryRepository<>(User::getId, User::setId)
+            .query("findGoalsById", (args, users) -> users.stream()
+                    .filter(user -> user.getId().equals(args[0]))
+                    .findFirst()
+                    .map(InMemoryNutritionStore::goals));
+
+    public final InMemoryRepository<FoodLog> foodLogs = new InMemoryRepository<>(FoodLog::getId, FoodLog::setId)
+            .query("findByUserIdAndDate", (args, logs) -> logs.stream()
+                    .filter(log -> log.getUserId().equals(args[0]) && log.getDate().equals(args[1]))
+                    .collect(Collectors.toList()))
+            .query("findEntriesByUserIdAndDate", (args, logs) -> logs.stream()
+                    .filter(log -> log.getUserId().equals(args[0]) && log.getDate().equals(args[1]))
+                    .map(InMemoryNutritionStore::foodLogEntry)
+                    .collect(Collectors.toList()))
+            .query("findByUserIdAndDateBetween", (args, logs) -> logs.stream()
+                    .filter(log -> log.getUserId().equals(args[0]) && log.getDate().isAfter((LocalDate) args[1])
+                            && log.getDate().isBefore((LocalDate) args[2]))
+                    .collect(Collectors.toList()));
+
+    public final InMemoryRepository<WaterLog> waterLogs = new InMemoryRepository<>(WaterLog::getId, WaterLog::setId)
+            .query("findByUserIdAndDate", (args, logs) -> logs.stream()
+                    .filter(log -> log.getUserId().equals(args[0]) && log.getDate().equals(args[1]))
+                    .collect(Collectors.toList()))
+            .query("findEntriesByUserIdAndDate", (args, logs) -> logs.stream()
+                    .filter(log -> log.getUserId().equals(args[0]) && log.getDate().equals(args[1]))
+                    .map(InMemoryNutritionStore::waterLogEntry)
+                    .collect(Collectors.toList()))
+            .query("findByUserIdAndDateBetween", (args, logs) -> logs.stream()
+                    .filter(log -> log.getUserId().equals(args[0]) && log.getDate().isAfter((LocalDate) args[1])
+                            && log.getDate().isBefore((LocalDate) args[2]))
+                    .collect(Collectors.toList()));
+
+    public final InMemoryRepository<FrequentFoods> frequentFoods = new InMemoryRepository<>(
+            FrequentFoods::getUserId, FrequentFoods::setUserId);
+
+    private final FoodLogRepository foodLogRepository = foodLogs.proxy(FoodLogRepository.class);
+    private final WaterLogRepository waterLogRepository = waterLogs.proxy(WaterLogRepository.class);
+    private final UserRepository userRepository = users.proxy(UserRepository.class);
+
+    public FoodLogRepository foodLogRepository() {
+        return foodLogRepository;
+    }
+
+    public WaterLogRepository waterLogRepository() {
+        return waterLogRepository;
+    }
+
+    public UserRepository userRepository() {
+        return userRepository;
+    }
+
+    public UserCache userCache() {
+        return new UserCache(userRepository, 10_000, 300);
+    }
+
+    public DailyTotalsRepository dailyTotalsRepository() {
+        return new InMemoryDailyTotalsRepository();
+    }
+
+    public ProgressAggregationRepository progressAggregationRepository() {
+        return new InMemoryProgressAggregationRepository();
+    }
+
+    public FoodLogHistoryRepository foodLogHistoryRepository() {
+        return new InMemoryFoodLogHistoryRepository();
+    }
+
+    public NutritionRollupRepository nutritionRollupRepository() {
+        return new InMemoryNutritionRollupRepository();
+    }
+
+    public FollowRepository followRepository() {
+        return new InMemoryFollowRepository();
+    }
+
+    public UserProfileRepository userProfileRepository() {
+        return new InMemoryUserProfileRepository();
+    }
+
+    public FrequentFoodsCache frequentFoodsCache() {
+        return new FrequentFoodsCache(frequentFoods.proxy(FrequentFoodsRepository.class),
+                new InMemoryFoodFrequencyRepository(), 10_000, 30);
+    }
+
+    // what the closed projection would read from the user document
+    private static NutritionGoals goals(User user) {
+        return new NutritionGoals() {
+            @Override
+            public String getId() {
+                return user.getId();
+            }
+
+            @Override
+            public Integer getDailyCalorieGoal() {
+                return user.getDailyCalorieGoal();
+            }
+
+            @Override
+            public Integer getDailyWaterGoal() {
+                return user.getDailyWaterGoal();
+            }
+        };
+    }
+
+    private static FoodLogEntryDTO foodLogEntry(FoodLog log) {
+        FoodLogEntryDTO entry = new FoodLogEntryDTO();
+        entry.setId(log.getId());
+        entry.setDate(log.getDate());
+        entry.setMealType(log.getMealType());
+        entry.setFoodName(log.getFoodName());
+        entry.setCalories(log.getCalories());
+        return entry;
+    }
+
+    private static WaterLogEntryDTO waterLogEntry(WaterLog log) {
+        WaterLogEntryDTO entry = new WaterLogEntryDTO();
+        entry.setId(log.getId());
+        entry.setDate(log.getDate());
+        entry.setGlasses(log.getGlasses());
+        return entry;
+    }
+
+    private class InMemoryDailyTotalsRepository extends DailyTotalsRepository {
+
+        private final Map<String, DailyTotals> totals = new ConcurrentHashMap<>();
+
+        InMemoryDailyTotalsRepository() {
+            super(null, foodLogRepository, waterLogRepository);
+        }
+
+        @Override
+        public DailyTotals findOrRebuild(String userId, LocalDate date) {
+            return totals.computeIfAbsent(userId + "|" + date, key -> sum(userId, date));
+        }
+
+        @Override
+        public DailyTotals applyFoodDelta(String userId, LocalDate date, String mealType, int calories,
+                NutrientTotals nutrients, int entries) {
+            Map<String, Integer> mealCalories = new HashMap<>();
+            mealCalories.put(mealType, calories);
+            return applyFoodDelta(userId, date, mealCalories, nutrients, entries);
+        }
+
+        @Override
+        public DailyTotals applyFoodDelta(String userId, LocalDate date, Map<String, Integer> mealCalories,
+                NutrientTotals nutrients, int entries) {
+            return totals.compute(userId + "|" + date, (key, current) -> {
+                DailyTotals updated = current != null ? current : sum(userId, date);
+                mealCalories.forEach((mealType, calories) -> {
+                    updated.setCalories(updated.getCalories() + calories);
+                    updated.getMealCalories().merge(mealType, calories, Integer::sum);
+                });
+                updated.getNutrients().add(nutrients);
+                updated.setFoodEntries(updated.getFoodEntries() + entries);
+                return updated;
+            });
+        }
+
+        @Override
+        public DailyTotals applyWaterDelta(String userId, LocalDate date, int glasses, int entries) {
+            return totals.compute(userId + "|" + date, (key, current) -> {
+                DailyTotals updated = current != null ? current : sum(userId, date);
+                updated.setGlasses(updated.getGlasses() + glasses);
+                updated.setWaterEntries(updated.getWaterEntries() + entries);
+                return updated;
+            });
+        }
+
+        @Override
+        public DailyTotals rebuild(String userId, LocalDate date) {
+            DailyTotals rebuilt = sum(userId, date);
+            totals.put(userId + "|" + date, rebuilt);
+            return rebuilt;
+        }
+
+        private DailyTotals sum(String userId, LocalDate date) {
+            List<FoodLog> dayFoodLogs = foodLogRepository.findByUserIdAndDate(userId, date);
+            List<WaterLog> dayWaterLogs = waterLogRepository.findByUserIdAndDate(userId, date);
+
+            DailyTotals sum = new DailyTotals();
+            sum.setUserId(userId);
+            sum.setDate(date);
+            for (FoodLog log : dayFoodLogs) {
+                sum.setCalories(sum.getCalories() + log.getCalories());
+                sum.getMealCalories().merge(log.getMealType(), log.getCalories(), Integer::sum);
+                sum.getNutrients().add(log);
+            }
+            sum.setGlasses(dayWaterLogs.stream().mapToInt(WaterLog::getGlasses).sum());
+            sum.setFoodEntries(dayFoodLogs.size());
+            sum.setWaterEntries(dayWaterLogs.size());
+            return sum;
+        }
+    }
+
+    // stands in for the server-side $group: only the per-day sums are handed back to the service
+    private class InMemoryProgressAggregationRepository extends ProgressAggregationRepository {
+
+        InMemoryProgressAggregationRepository() {
+            super(null);
+        }
+
+        @Override
+        public Map<LocalDate, Integer> sumCaloriesByDate(String userId, LocalDate from, LocalDate to) {
+            return foodLogs.documents().stream()
+                    .filter(log -> log.getUserId().equals(userId) && !log.getDate().isBefore(from)
+                            && !log.getDate().isAfter(to))
+                    .collect(Collectors.groupingBy(FoodLog::getDate, Collectors.summingInt(FoodLog::getCalories)));
+        }
+
+        @Override
+        public Map<LocalDate, Integer> sumGlassesByDate(String userId, LocalDate from, LocalDate to) {
+            return waterLogs.documents().stream()
+                    .filter(log -> log.getUserId().equals(userId) && !log.getDate().isBefore(from)
+                            && !log.getDate().isAfter(to))
+                    .collect(Collectors.groupingBy(WaterLog::getDate, Collectors.summingInt(WaterLog::getGlasses)));
+        }
+    }
+
+    private class InMemoryFoodLogHistoryRepository extends FoodLogHistoryRepository {
+
+        InMemoryFoodLogHistoryRepository() {
+            super(null);
+        }
+
+        @Override
+        public List<FoodLogEntryDTO> findPage(String userId, LocalDate beforeDate, ObjectId beforeId, int limit) {
+            return foodLogs.documents().stream()
+                    .filter(log -> log.getUserId().equals(userId))
+                    .filter(log -> beforeDate == null || log.getDate().isBefore(beforeDate)
+                            || log.getDate().equals(beforeDate) && log.getId().compareTo(beforeId.toHexString()) < 0)
+                    .sorted(Comparator.comparing(FoodLog::getDate).thenComparing(FoodLog::getId).reversed())
+                    .limit(limit)
+                    .map(InMemoryNutritionStore::foodLogEntry)
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private class InMemoryFoodFrequencyRepository extends FoodFrequencyRepository {
+
+        InMemoryFoodFrequencyRepository() {
+            super(null);
+        }
+
+        @Override
+        public List<FoodCount> topFoods(String userId, int limit) {
+            Map<List<Object>, FoodCount> counts = new HashMap<>();
+            for (FoodLog log : foodLogs.documents()) {
+                if (!log.getUserId().equals(userId)) {
+                    continue;
+                }
+                FoodCount count = counts.computeIfAbsent(
+                        Arrays.asList(log.getFoodName(), log.getMealType(), log.getCalories()), key -> {
+                            FoodCount created = new FoodCount();
+                            created.setFoodName(log.getFoodName());
+                            created.setMealType(log.getMealType());
+                            created.setCalories(log.getCalories());
+                            created.setLastLogged(log.getDate());
+                            return created;
+                        });
+                count.setCount(count.getCount() + 1);
+                if (log.getDate().isAfter(count.getLastLogged())) {
+                    count.setLastLogged(log.getDate());
+                }
+            }
+            return counts.values().stream()
+                    .sorted(Comparator.comparingInt(FoodCount::getCount).reversed()
+                            .thenComparing(Comparator.comparing(FoodCount::getLastLogged).reversed()))
+                    .limit(limit)
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private class InMemoryNutritionRollupRepository extends NutritionRollupRepository {
+
+        private final Map<String, NutritionRollup> rollups = new ConcurrentHashMap<>();
+
+        InMemoryNutritionRollupRepository() {
+            super(null);
+        }
+
+        @Override
+        public List<NutritionRollup> findOrRebuild(String userId, String period, List<LocalDate> starts,
+                boolean includeDays) {
+            return starts.stream()
+                    .map(start -> rollups.computeIfAbsent(userId + "|" + period + "|" + start,
+                            key -> seed(userId, period, start)))
+                    .collect(Collectors.toList());
+        }
+
+        @Override
+        public void applyDelta(String userId, LocalDate date, int calories, NutrientTotals nutrients, int glasses,
+                int foodEntries, int waterEntries) {
+            for (String period : List.of(NutritionRollup.WEEK, NutritionRollup.MONTH)) {
+                LocalDate start = periodStart(period, date);
+                rollups.compute(userId + "|" + period + "|" + start, (key, current) -> {
+                    NutritionRollup updated = current != null ? current : seed(userId, period, start);
+                    add(updated, date, calories, null, glasses, foodEntries, waterEntries);
+                    updated.getNutrients().add(nutrients);
+                    updated.getDays().get(date.toString()).getNutrients().add(nutrients);
+                    return updated;
+                });
+            }
+        }
+
+        @Override
+        public NutritionRollup seed(String userId, String period, LocalDate start) {
+            NutritionRollup rollup = newRollup(userId, period, start);
+            for (FoodLog log : foodLogs.documents()) {
+                if (log.getUserId().equals(userId) && !log.getDate().isBefore(start)
+                        && !log.getDate().isAfter(rollup.getEnd())) {
+                    add(rollup, log.getDate(), log.getCalories(), log, 0, 1, 0);
+                }
+            }
+            for (WaterLog log : waterLogs.documents()) {
+                if (log.getUserId().equals(userId) && !log.getDate().isBefore(start)
+                        && !log.getDate().isAfter(rollup.getEnd())) {
+                    add(rollup, log.getDate(), 0, null, log.getGlasses(), 0, 1);
+                }
+            }
+            return rollup;
+        }
+    }
+
+    // edges kept newest first, counts written straight onto the user documents
+    private class InMemoryFollowRepository extends FollowRepository {
+
+        private final List<Follow> edges = new CopyOnWriteArrayList<>();
+
+        InMemoryFollowRepository() {
+            super(null);
+        }
+
+        @Override
+        public boolean follow(String followerId, String followeeId) {
+            if (isFollowing(followerId, followeeId)) {
+                return false;
+            }
+            Follow follow = new Follow();
+            follow.setId(new ObjectId().toHexString());
+            follow.setFollowerId(followerId);
+            follow.setFolloweeId(followeeId);
+            edges.add(0, follow);
+            recount(followerId);
+            recount(followeeId);
+            return true;
+        }
+
+        @Override
+        public boolean unfollow(String followerId, String followeeId) {
+            boolean removed = edges.removeIf(follow -> follow.getFollowerId().equals(followerId)
+                    && follow.getFolloweeId().equals(followeeId));
+            recount(followerId);
+            recount(followeeId);
+            return removed;
+        }
+
+        @Override
+        public boolean isFollowing(String followerId, String followeeId) {
+            return edges.stream().anyMatch(follow -> follow.getFollowerId().equals(followerId)
+                    && follow.getFolloweeId().equals(followeeId));
+        }
+
+        @Override
+        public List<Follow> findFollowers(String userId, ObjectId beforeId, int limit) {
+            return page(follow -> follow.getFolloweeId().equals(userId), beforeId, limit);
+        }
+
+        @Override
+        public List<Follow> findFollowing(String userId, ObjectId beforeId, int limit) {
+            return page(follow -> follow.getFollowerId().equals(userId), beforeId, limit);
+        }
+
+        @Override
+        public void recount(String userId) {
+            userRepository.findById(userId).ifPresent(user -> {
+                user.setFollowersCount(edges.stream().filter(f -> f.getFolloweeId().equals(userId)).count());
+                user.setFollowingCount(edges.stream().filter(f -> f.getFollowerId().equals(userId)).count());
+            });
+        }
+
+        private List<Follow> page(Predicate<Follow> filter, ObjectId beforeId, int limit) {
+            return edges.stream()
+                    .filter(filter)
+                    .filter(follow -> beforeId == null || new ObjectId(follow.getId()).compareTo(beforeId) < 0)
+                    .limit(limit)
+                    .collect(Collectors.toList());
+        }
+    }
+
+    // answers the projected $in query with copies holding only the profile fields
+    private class InMemoryUserProfileRepository extends UserProfileRepository {
+
+        InMemoryUserProfileRepository() {
+            super(null);
+        }
+
+        @Override
+        public List<UserProfileDTO> findProfiles(Collection<String> userIds, int maxSkills) {
+            List<UserProfileDTO> profiles = new ArrayList<>();
+            for (String userId : userIds) {
+                userRepository.findById(userId).ifPresent(user -> {
+                    UserProfileDTO profile = new UserProfileDTO();
+                    profile.setId(user.getId());
+                    profile.setName(user.getName());
+                    profile.setEmail(user.getEmail());
+                    profile.setProfileImage(user.getProfileImage());
+                    profile.setBio(user.getBio());
+                    profile.setSkills(user.getSkills().subList(0, Math.min(maxSkills, user.getSkills().size())));
+                    profile.setLocation(user.getLocation());
+                    profile.setFollowersCount(user.getFollowersCount());
+                    profile.setFollowingCount(user.getFollowingCount());
+                    profile.setRegistrationSource(user.getRegistrationSource());
+                    profiles.add(profile);
+                });
+            }
+            return profiles;
+        }
+    }
+}
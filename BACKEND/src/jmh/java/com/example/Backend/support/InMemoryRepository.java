@@ -0,0 +1,135 @@
+package com.example.Backend.support;
+
+import org.bson.types.ObjectId;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Map-backed stand-in for a Spring Data repository interface, so benchmarks measure our code rather than
+ * MongoDB. Covers the CRUD methods the services use; derived finders are registered with {@link #query}.
+ */
+public class InMemoryRepository<T> implements InvocationHandler {
+
+    private final Map<String, T> documents = new ConcurrentHashMap<>();
+    private final Map<String, BiFunction<Object[], Collection<T>, Object>> queries = new HashMap<>();
+    private final Function<T, String> idGetter;
+    private final BiConsumer<T, String> idSetter;
+    private boolean retainWrites = true;
+
+    public InMemoryRepository(Function<T, String> idGetter, BiConsumer<T, String> idSetter) {
+        this.idGetter = idGetter;
+        this.idSetter = idSetter;
+    }
+
+    public InMemoryRepository<T> query(String methodName, BiFunction<Object[], Collection<T>, Object> query) {
+        queries.put(methodName, query);
+        return this;
+    }
+
+    // keeps the seeded data set at a fixed size while write paths are benchmarked
+    public InMemoryRepository<T> discardWrites() {
+        retainWrites = false;
+        return this;
+    }
+
+    public void seed(T document) {
+        store(document);
+    }
+
+    public Collection<T> documents() {
+        return documents.values();
+    }
+
+    public <R> R proxy(Class<R> repositoryType) {
+        return repositoryType.cast(Proxy.newProxyInstance(repositoryType.getClassLoader(),
+                new Class<?>[] { repositoryType }, this));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        BiFunction<Object[], Collection<T>, Object> query = queries.get(method.getName());
+        if (query != null) {
+            return query.apply(args, documents.values());
+        }
+
+        switch (method.getName()) {
+            case "save":
+            case "insert":
+                if (args[0] instanceof Iterable<?> iterable) {
+                    return storeAll((Iterable<T>) iterable);
+                }
+                return write((T) args[0]);
+            case "saveAll":
+                return storeAll((Iterable<T>) args[0]);
+            case "findById":
+                return Optional.ofNullable(documents.get((String) args[0]));
+            case "existsById":
+                return documents.containsKey((String) args[0]);
+            case "findAllById": {
+                List<T> found = new ArrayList<>();
+                for (Object id : (Iterable<?>) args[0]) {
+                    T document = documents.get((String) id);
+                    if (document != null) {
+                        found.add(document);
+                    }
+                }
+                return found;
+            }
+            case "findAll":
+                return new ArrayList<>(documents.values());
+            case "count":
+                return (long) documents.size();
+            case "deleteById":
+                if (retainWrites) {
+                    documents.remove((String) args[0]);
+                }
+                return null;
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "equals":
+                return proxy == args[0];
+            case "toString":
+                return "InMemoryRepository" + documents.keySet();
+            default:
+                throw new UnsupportedOperationException(method.toString());
+        }
+    }
+
+    private List<T> storeAll(Iterable<T> batch) {
+        List<T> saved = new ArrayList<>();
+        for (T document : batch) {
+            saved.add(write(document));
+        }
+        return saved;
+    }
+
+    private T write(T document) {
+        if (idGetter.apply(document) == null) {
+            idSetter.accept(document, new ObjectId().toHexString());
+        }
+        if (retainWrites) {
+            documents.put(idGetter.apply(document), document);
+        }
+        return document;
+    }
+
+    private void store(T document) {
+        if (idGetter.apply(document) == null) {
+            idSetter.accept(document, new ObjectId().toHexString());
+        }
+        documents.put(idGetter.apply(document), document);
+    }
+}
@@ -1,6 +1,11 @@
 package com.example.Backend.config;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -12,15 +17,37 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Collections;
-import java.util.Date;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
 
 public class JWTAuthenticationFilter extends OncePerRequestFilter {
-    private final Key jwtSecret;
+    private static final long DEFAULT_TOKEN_CACHE_SIZE = 10_000;
+
+    // parsers are immutable and thread-safe, so build it (and resolve the key) once
+    private final JwtParser jwtParser;
+
+    // sha-256 of the token -> verified subject/expiry, null when caching is disabled
+    private final Cache<String, VerifiedToken> verifiedTokens;
 
     public JWTAuthenticationFilter(Key jwtSecret) {
-        this.jwtSecret = jwtSecret;
+        this(jwtSecret, DEFAULT_TOKEN_CACHE_SIZE);
+    }
+
+    public JWTAuthenticationFilter(Key jwtSecret, long tokenCacheSize) {
+        this.jwtParser = Jwts.parser()
+                .setSigningKey(jwtSecret)
+                .build();
+        this.verifiedTokens = tokenCacheSize > 0
+                ? Caffeine.newBuilder()
+                        .maximumSize(tokenCacheSize)
+                        .expireAfter(new TokenExpiry())
+                        .build()
+                : null;
     }
 
     @Override
@@ -38,16 +65,11 @@ public class JWTAuthenticationFilter extends OncePerRequestFilter {
         String token = header.replace("Bearer ", "");
 
         try {
-            Claims claims = Jwts.parser()
-                    .setSigningKey(jwtSecret)
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
-
-            String userId = claims.getSubject();
+            VerifiedToken verifiedToken = verify(token);
+            String userId = verifiedToken.subject;
 
             //check if token is expired
-            if (claims.getExpiration().before(new Date())) {
+            if (verifiedToken.isExpired()) {
                 response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
                 response.getWriter().write("Token has expired");
                 return;
@@ -71,10 +93,81 @@ public class JWTAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    // controllers returning Mono are completed on an async dispatch, which goes through authorization again
+    // and needs the authentication restored; with the token cache this is a lookup, not a second parse
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    private VerifiedToken verify(String token) {
+        if (verifiedTokens == null) {
+            return parse(token);
+        }
+
+        String key = sha256(token);
+        VerifiedToken verifiedToken = verifiedTokens.getIfPresent(key);
+        if (verifiedToken == null) {
+            verifiedToken = parse(token);
+            verifiedTokens.put(key, verifiedToken);
+        }
+        return verifiedToken;
+    }
+
+    private VerifiedToken parse(String token) {
+        Claims claims = jwtParser.parseClaimsJws(token).getBody();
+        if (claims.getExpiration() == null) {
+            throw new JwtException("Token has no expiration");
+        }
+        return new VerifiedToken(claims.getSubject(), claims.getExpiration().getTime());
+    }
+
+    private static String sha256(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
     private boolean isOpenEndpoint(String uri) {
         return uri.startsWith("/api/users/login") ||
                 uri.startsWith("/api/users/register") ||
                 uri.startsWith("/oauth2/") ||
                 uri.startsWith("/api/auth/");
     }
-}
+
+    private static final class VerifiedToken {
+        private final String subject;
+        private final long expiresAtMillis;
+
+        private VerifiedToken(String subject, long expiresAtMillis) {
+            this.subject = subject;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+
+        private boolean isExpired() {
+            return System.currentTimeMillis() >= expiresAtMillis;
+        }
+    }
+
+    // drop each cached token when the token itself expires
+    private static final class TokenExpiry implements Expiry<String, VerifiedToken> {
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken token, long currentTime) {
+            long remainingMillis = token.expiresAtMillis - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken token, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, token, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken token, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
\ No newline at end of file
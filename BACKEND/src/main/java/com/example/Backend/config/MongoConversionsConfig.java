@@ -0,0 +1,18 @@
+package com.example.Backend.config;
+
+import com.example.Backend.model.NutrientTotals;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+
+import java.util.List;
+
+// picked up by both the imperative and the reactive MongoTemplate
+@Configuration
+public class MongoConversionsConfig {
+
+    @Bean
+    public MongoCustomConversions mongoCustomConversions() {
+        return new MongoCustomConversions(List.of(new NutrientTotals.Writer(), new NutrientTotals.Reader()));
+    }
+}
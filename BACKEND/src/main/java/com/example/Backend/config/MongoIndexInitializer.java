@@ -0,0 +1,79 @@
+package com.example.Backend.config;
+
+import com.example.Backend.model.DailyTotals;
+import com.example.Backend.model.Follow;
+import com.example.Backend.model.Food;
+import com.example.Backend.model.FoodLog;
+import com.example.Backend.model.NutritionRollup;
+import com.example.Backend.model.User;
+import com.example.Backend.model.WaterLog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// creates the indexes declared on our documents at startup and refuses to start if any are missing,
+// since spring.data.mongodb.auto-index-creation is off by default
+@Component
+@ConditionalOnProperty(name = "nutrition.mongo.ensure-indexes", havingValue = "true", matchIfMissing = true)
+public class MongoIndexInitializer implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(MongoIndexInitializer.class);
+
+    static final List<Class<?>> INDEXED_DOCUMENTS = List.of(
+            User.class, FoodLog.class, WaterLog.class, DailyTotals.class, NutritionRollup.class, Food.class,
+            Follow.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    @Autowired
+    public MongoIndexInitializer(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        ensureIndexes();
+    }
+
+    public void ensureIndexes() {
+        IndexResolver resolver = new MongoPersistentEntityIndexResolver(
+                mongoTemplate.getConverter().getMappingContext());
+
+        for (Class<?> document : INDEXED_DOCUMENTS) {
+            IndexOperations indexOps = mongoTemplate.indexOps(document);
+            List<String> expected = new ArrayList<>();
+            for (IndexDefinition index : resolver.resolveIndexFor(document)) {
+                indexOps.ensureIndex(index);
+                String name = index.getIndexOptions().getString("name");
+                if (name != null) {
+                    expected.add(name);
+                }
+            }
+
+            Set<String> existing = indexOps.getIndexInfo().stream()
+                    .map(IndexInfo::getName)
+                    .collect(Collectors.toSet());
+            List<String> missing = expected.stream().filter(name -> !existing.contains(name)).toList();
+            if (!missing.isEmpty()) {
+                throw new IllegalStateException("Missing MongoDB indexes on "
+                        + mongoTemplate.getCollectionName(document) + ": " + missing);
+            }
+            log.info("Verified indexes {} on {}", expected, mongoTemplate.getCollectionName(document));
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.Backend.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.data.mongodb.repository.config.EnableMongoRepositories;
+import org.springframework.data.mongodb.repository.config.EnableReactiveMongoRepositories;
+
+// reactive repositories for the opt-in reactive nutrition api. Enabling them makes Spring Boot back off from
+// configuring the imperative ones, so those are enabled here as well
+@Configuration
+@ConditionalOnProperty(name = "nutrition.reactive.enabled", havingValue = "true")
+@EnableReactiveMongoRepositories(basePackages = "com.example.Backend.repository.reactive")
+@EnableMongoRepositories(basePackages = "com.example.Backend.repository", excludeFilters = @ComponentScan.Filter(
+        type = FilterType.REGEX, pattern = "com\\.example\\.Backend\\.repository\\.reactive\\..*"))
+public class ReactiveMongoConfig {
+}
@@ -7,6 +7,7 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Lazy;
@@ -15,6 +16,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.security.web.authentication.AuthenticationSuccessHandler;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -27,6 +29,7 @@ import org.springframework.security.web.SecurityFilterChain;
 import java.io.IOException;
 import java.security.Key;
 import java.util.List;
+import java.util.Set;
 
 @Configuration
 @EnableWebSecurity
@@ -34,11 +37,15 @@ public class SecurityConfig {
 
     private final JWTAuthenticationFilter jwtAuthenticationFilter;
     private final UserService userService;
+    private final int managementPort;
 
     @Autowired
-    public SecurityConfig(Key jwtSecretKey, @Lazy UserService userService) {
-        this.jwtAuthenticationFilter = new JWTAuthenticationFilter(jwtSecretKey);
+    public SecurityConfig(Key jwtSecretKey, @Lazy UserService userService,
+            @Value("${nutrition.jwt.token-cache-size:10000}") long tokenCacheSize,
+            @Value("${management.server.port:-1}") int managementPort) {
+        this.jwtAuthenticationFilter = new JWTAuthenticationFilter(jwtSecretKey, tokenCacheSize);
         this.userService = userService;
+        this.managementPort = managementPort;
     }
 
     @Bean
@@ -50,6 +57,7 @@ public class SecurityConfig {
                 .authorizeHttpRequests(t -> t.requestMatchers("/api/users/login", "/api/users/register").permitAll()
                         .requestMatchers("/oauth2/**").permitAll()
                         .requestMatchers("/api/auth/**").permitAll()
+                        .requestMatchers(onManagementPort("/actuator/health", "/actuator/prometheus")).permitAll()
                         .anyRequest().authenticated())
                 .oauth2Login(t -> t.loginPage("/oauth2/authorization/google")
                         .successHandler(oAuth2AuthenticationSuccessHandler())
@@ -64,6 +72,14 @@ public class SecurityConfig {
         return http.build();
     }
 
+    // the management port is bound to an internal address (management.server.address); the same paths on the
+    // public port, or with no separate management port, need a login like everything else
+    private RequestMatcher onManagementPort(String... paths) {
+        Set<String> uris = Set.of(paths);
+        return request -> managementPort > 0 && request.getLocalPort() == managementPort
+                && uris.contains(request.getRequestURI());
+    }
+
     @Bean
     public AuthenticationSuccessHandler oAuth2AuthenticationSuccessHandler() {
         return new AuthenticationSuccessHandler() {
@@ -107,13 +123,16 @@ public class SecurityConfig {
         return source;
     }
 
+    // same instance as in the security chain, so OncePerRequestFilter skips the second pass
+    // through the servlet registration and both share one token cache
     @Bean
-    public JWTAuthenticationFilter jwtAuthenticationFilter(Key jwtSecretKey) {
-        return new JWTAuthenticationFilter(jwtSecretKey);
+    public JWTAuthenticationFilter jwtAuthenticationFilter() {
+        return jwtAuthenticationFilter;
     }
 
+    // hashes are only computed through PasswordHasher, which runs them on its own bounded pool
     @Bean
-    public BCryptPasswordEncoder bCryptPasswordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BCryptPasswordEncoder bCryptPasswordEncoder(@Value("${nutrition.password.bcrypt-cost:10}") int cost) {
+        return new BCryptPasswordEncoder(cost);
     }
 }
\ No newline at end of file
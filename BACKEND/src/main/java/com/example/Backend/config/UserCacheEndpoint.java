@@ -0,0 +1,27 @@
+package com.example.Backend.config;
+
+import com.example.Backend.service.UserCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+// /actuator/usercache on the management port; the same numbers are exported as cache.* metrics
+@Component
+@Endpoint(id = "usercache")
+public class UserCacheEndpoint {
+
+    private final UserCache userCache;
+
+    @Autowired
+    public UserCacheEndpoint(UserCache userCache) {
+        this.userCache = userCache;
+    }
+
+    @ReadOperation
+    public Map<String, Object> stats() {
+        return userCache.getStats();
+    }
+}
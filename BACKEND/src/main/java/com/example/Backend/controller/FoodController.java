@@ -0,0 +1,36 @@
+package com.example.Backend.controller;
+
+import com.example.Backend.dto.FoodDTO;
+import com.example.Backend.service.FoodCatalogService;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/foods")
+public class FoodController {
+
+    private final FoodCatalogService foodCatalogService;
+
+    @Autowired
+    public FoodController(FoodCatalogService foodCatalogService) {
+        this.foodCatalogService = foodCatalogService;
+    }
+
+    @GetMapping("/search")
+    @Timed(value = "nutrition.requests", extraTags = { "endpoint", "food_search" })
+    public ResponseEntity<?> searchFoods(@RequestParam String q, @RequestParam(required = false) String userId,
+            @RequestParam(defaultValue = "10") int limit, @AuthenticationPrincipal String authenticatedUserId) {
+        // another user's id is searched like no id, their history is neither read nor loaded into the cache
+        return foodCatalogService.search(q, userId != null && userId.equals(authenticatedUserId) ? userId : null,
+                limit);
+    }
+
+    @PostMapping
+    public ResponseEntity<?> addFood(@Valid @RequestBody FoodDTO foodDTO) {
+        return foodCatalogService.addFood(foodDTO);
+    }
+}
@@ -1,16 +1,25 @@
 package com.example.Backend.controller;
 
+import com.example.Backend.dto.FoodLogBatchDTO;
 import com.example.Backend.dto.FoodLogDTO;
 import com.example.Backend.dto.UserProfileUpdateDTO;
 import com.example.Backend.dto.WaterLogDTO;
+import com.example.Backend.service.NutritionExportService;
+import com.example.Backend.service.NutritionImportService;
 import com.example.Backend.service.NutritionService;
 import com.example.Backend.service.UserService;
+import io.micrometer.core.annotation.Timed;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.time.format.DateTimeParseException;
 
 @RestController
@@ -19,11 +28,16 @@ public class NutritionController {
 
     private final NutritionService nutritionService;
     private final UserService userService;
+    private final NutritionExportService exportService;
+    private final NutritionImportService importService;
 
     @Autowired
-    public NutritionController(NutritionService nutritionService, UserService userService) {
+    public NutritionController(NutritionService nutritionService, UserService userService,
+            NutritionExportService exportService, NutritionImportService importService) {
         this.nutritionService = nutritionService;
         this.userService = userService;
+        this.exportService = exportService;
+        this.importService = importService;
     }
 
     @PutMapping("/profile/{userId}")
@@ -33,27 +47,65 @@ public class NutritionController {
     }
 
     @PostMapping("/food/{userId}")
+    @Timed(value = "nutrition.requests", extraTags = { "endpoint", "log_food" })
     public ResponseEntity<?> logFood(@PathVariable String userId, @Valid @RequestBody FoodLogDTO foodLogDTO) {
         return nutritionService.logFood(userId, foodLogDTO);
     }
 
+    @GetMapping("/food/{userId}")
+    @Timed(value = "nutrition.requests", extraTags = { "endpoint", "food_history" })
+    public ResponseEntity<?> getFoodLogHistory(@PathVariable String userId,
+            @RequestParam(required = false) String before, @RequestParam(defaultValue = "20") int limit) {
+        return nutritionService.getFoodLogHistory(userId, before, limit);
+    }
+
+    @GetMapping("/food/{userId}/frequent")
+    @Timed(value = "nutrition.requests", extraTags = { "endpoint", "frequent_foods" })
+    public ResponseEntity<?> getFrequentFoods(@PathVariable String userId,
+            @RequestParam(defaultValue = "10") int limit) {
+        return nutritionService.getFrequentFoods(userId, limit);
+    }
+
+    @PostMapping("/food/{userId}/batch")
+    @Timed(value = "nutrition.requests", extraTags = { "endpoint", "log_food_batch" })
+    public ResponseEntity<?> logFoodBatch(@PathVariable String userId,
+            @Valid @RequestBody FoodLogBatchDTO batchDTO) {
+        return nutritionService.logFoodBatch(userId, batchDTO);
+    }
+
     @PostMapping("/water/{userId}")
+    @Timed(value = "nutrition.requests", extraTags = { "endpoint", "log_water" })
     public ResponseEntity<?> logWater(@PathVariable String userId, @Valid @RequestBody WaterLogDTO waterLogDTO) {
         return nutritionService.logWater(userId, waterLogDTO);
     }
 
     @GetMapping("/progress/daily/{userId}")
+    @Timed(value = "nutrition.requests", extraTags = { "endpoint", "daily_progress" })
     public ResponseEntity<?> getDailyProgress(@PathVariable String userId,
-            @RequestParam String date) {
+            @RequestParam String date, @RequestParam(defaultValue = "full") String view) {
+        if (!view.equals("full") && !view.equals("summary")) {
+            return ResponseEntity.badRequest().body("View must be summary or full.");
+        }
         try {
             LocalDate localDate = LocalDate.parse(date);
-            return nutritionService.getDailyProgress(userId, localDate);
+            return nutritionService.getDailyProgress(userId, localDate, view.equals("full"));
         } catch (DateTimeParseException e) {
             return ResponseEntity.badRequest().body("Invalid date format. Use YYYY-MM-DD.");
         }
     }
 
+    @GetMapping(value = "/progress/daily/{userId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamDailyProgress(@PathVariable String userId, @RequestParam String date) {
+        try {
+            LocalDate localDate = LocalDate.parse(date);
+            return nutritionService.streamDailyProgress(userId, localDate);
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @GetMapping("/progress/weekly/{userId}")
+    @Timed(value = "nutrition.requests", extraTags = { "endpoint", "weekly_progress" })
     public ResponseEntity<?> getWeeklyProgress(@PathVariable String userId,
             @RequestParam String startDate) {
         if (userId == null || userId.trim().isEmpty()) {
@@ -70,7 +122,54 @@ public class NutritionController {
         }
     }
 
+    @GetMapping("/progress/monthly/{userId}")
+    @Timed(value = "nutrition.requests", extraTags = { "endpoint", "monthly_progress" })
+    public ResponseEntity<?> getMonthlyProgress(@PathVariable String userId, @RequestParam String month) {
+        try {
+            return nutritionService.getMonthlyProgress(userId, YearMonth.parse(month));
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body("Invalid month format. Use YYYY-MM.");
+        }
+    }
+
+    @GetMapping("/progress/yearly/{userId}")
+    @Timed(value = "nutrition.requests", extraTags = { "endpoint", "yearly_progress" })
+    public ResponseEntity<?> getYearlyProgress(@PathVariable String userId, @RequestParam int year) {
+        return nutritionService.getYearlyProgress(userId, year);
+    }
+
+    @GetMapping("/progress/range/{userId}")
+    @Timed(value = "nutrition.requests", extraTags = { "endpoint", "range_progress" })
+    public ResponseEntity<?> getRangeProgress(@PathVariable String userId, @RequestParam String from,
+            @RequestParam String to) {
+        try {
+            return nutritionService.getRangeProgress(userId, LocalDate.parse(from), LocalDate.parse(to));
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body("Invalid date format. Use YYYY-MM-DD.");
+        }
+    }
+
+    @GetMapping("/export/{userId}")
+    public ResponseEntity<StreamingResponseBody> exportHistory(@PathVariable String userId,
+            @RequestParam(defaultValue = "ndjson") String format) {
+        return exportService.export(userId, format);
+    }
+
+    // the body is read as it arrives, so large uploads are never buffered whole
+    @PostMapping("/import/{userId}")
+    @Timed(value = "nutrition.requests", extraTags = { "endpoint", "import" })
+    public ResponseEntity<?> importHistory(@PathVariable String userId,
+            @RequestParam(defaultValue = "ndjson") String format, InputStream body) {
+        return importService.importLogs(userId, format, body);
+    }
+
+    @PostMapping("/rollups/{userId}/rebuild")
+    public ResponseEntity<?> rebuildRollups(@PathVariable String userId) {
+        return nutritionService.rebuildRollups(userId);
+    }
+
     @DeleteMapping("/food/{userId}/{foodLogId}")
+    @Timed(value = "nutrition.requests", extraTags = { "endpoint", "delete_food" })
     public ResponseEntity<?> deleteFoodLog(@PathVariable String userId, @PathVariable String foodLogId) {
         return nutritionService.deleteFoodLog(userId, foodLogId);
     }
@@ -0,0 +1,73 @@
+package com.example.Backend.controller;
+
+import com.example.Backend.dto.FoodLogDTO;
+import com.example.Backend.dto.WaterLogDTO;
+import com.example.Backend.service.ReactiveNutritionService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+// same endpoints as NutritionController on the reactive service; Spring MVC releases the request thread
+// when a Mono is returned and writes the response once it completes
+@RestController
+@RequestMapping("/api/reactive/nutrition")
+@ConditionalOnProperty(name = "nutrition.reactive.enabled", havingValue = "true")
+public class ReactiveNutritionController {
+
+    private final ReactiveNutritionService nutritionService;
+
+    @Autowired
+    public ReactiveNutritionController(ReactiveNutritionService nutritionService) {
+        this.nutritionService = nutritionService;
+    }
+
+    @PostMapping("/food/{userId}")
+    public Mono<ResponseEntity<?>> logFood(@PathVariable String userId, @Valid @RequestBody FoodLogDTO foodLogDTO) {
+        return nutritionService.logFood(userId, foodLogDTO);
+    }
+
+    @PostMapping("/water/{userId}")
+    public Mono<ResponseEntity<?>> logWater(@PathVariable String userId,
+            @Valid @RequestBody WaterLogDTO waterLogDTO) {
+        return nutritionService.logWater(userId, waterLogDTO);
+    }
+
+    @GetMapping("/progress/daily/{userId}")
+    public Mono<ResponseEntity<?>> getDailyProgress(@PathVariable String userId, @RequestParam String date,
+            @RequestParam(defaultValue = "full") String view) {
+        if (!view.equals("full") && !view.equals("summary")) {
+            return Mono.just(ResponseEntity.badRequest().body("View must be summary or full."));
+        }
+        try {
+            LocalDate localDate = LocalDate.parse(date);
+            return nutritionService.getDailyProgress(userId, localDate, view.equals("full"));
+        } catch (DateTimeParseException e) {
+            return Mono.just(ResponseEntity.badRequest().body("Invalid date format. Use YYYY-MM-DD."));
+        }
+    }
+
+    @GetMapping("/progress/weekly/{userId}")
+    public Mono<ResponseEntity<?>> getWeeklyProgress(@PathVariable String userId,
+            @RequestParam String startDate) {
+        if (startDate == null || startDate.trim().isEmpty()) {
+            return Mono.just(ResponseEntity.badRequest().body("Start date is required."));
+        }
+        try {
+            LocalDate localStartDate = LocalDate.parse(startDate);
+            return nutritionService.getWeeklyProgress(userId, localStartDate);
+        } catch (DateTimeParseException e) {
+            return Mono.just(ResponseEntity.badRequest().body("Invalid start date format. Use YYYY-MM-DD."));
+        }
+    }
+
+    @DeleteMapping("/food/{userId}/{foodLogId}")
+    public Mono<ResponseEntity<?>> deleteFoodLog(@PathVariable String userId, @PathVariable String foodLogId) {
+        return nutritionService.deleteFoodLog(userId, foodLogId);
+    }
+}
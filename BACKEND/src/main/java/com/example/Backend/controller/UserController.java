@@ -1,20 +1,22 @@
 package com.example.Backend.controller;
 
 import com.example.Backend.dto.ProfileUpdateDTO;
-import com.example.Backend.dto.UserProfileDTO;
 import com.example.Backend.dto.UserUpdateDTO;
 import com.example.Backend.model.User;
+import com.example.Backend.repository.UserProfileRepository;
 import com.example.Backend.repository.UserRepository;
+import com.example.Backend.service.UserCache;
 import com.example.Backend.service.UserService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -23,16 +25,21 @@ public class UserController {
 
     private final UserService userService;
     private final UserRepository userRepository;
+    private final UserProfileRepository userProfileRepository;
+    private final UserCache userCache;
 
     @Autowired
-    public UserController(UserService userService, UserRepository userRepository) {
+    public UserController(UserService userService, UserRepository userRepository,
+            UserProfileRepository userProfileRepository, UserCache userCache) {
         this.userService = userService;
         this.userRepository = userRepository;
+        this.userProfileRepository = userProfileRepository;
+        this.userCache = userCache;
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<?> getUserById(@PathVariable String id) {
-        Optional<User> user = userRepository.findById(id);
+        Optional<User> user = userCache.findById(id);
         return user.map(value -> ResponseEntity.ok(userService.convertToProfileDTO(value)))
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -43,19 +50,13 @@ public class UserController {
     }
 
     @GetMapping("/batch")
-    public ResponseEntity<List<UserProfileDTO>> getUsersByIds(@RequestParam List<String> ids) {
-        List<UserProfileDTO> users = userService.getUsersByIds(ids);
-        return ResponseEntity.ok(users);
+    public ResponseEntity<?> getUsersByIds(@RequestParam List<String> ids) {
+        return userService.getUsersByIds(ids);
     }
 
     @PutMapping("/{id}")
     public ResponseEntity<?> updateUser(@PathVariable String id, @Valid @RequestBody UserUpdateDTO userUpdateDTO) {
-        Optional<User> existingUser = userRepository.findById(id);
-        if (!existingUser.isPresent()) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found");
-        }
-
-        User user = existingUser.get();
+        Update update = new Update();
 
         // Check if email is provided and already in use by another user
         if (userUpdateDTO.getEmail() != null && !userUpdateDTO.getEmail().trim().isEmpty()) {
@@ -63,18 +64,29 @@ public class UserController {
             if (userWithEmail.isPresent() && !userWithEmail.get().getId().equals(id)) {
                 return ResponseEntity.status(HttpStatus.CONFLICT).body("Email is already in use");
             }
-            user.setEmail(userUpdateDTO.getEmail());
+            update.set("email", userUpdateDTO.getEmail());
         }
 
         // Update name if provided
         if (userUpdateDTO.getName() != null && !userUpdateDTO.getName().trim().isEmpty()) {
-            user.setName(userUpdateDTO.getName());
+            update.set("name", userUpdateDTO.getName());
+        }
+
+        if (update.getUpdateObject().isEmpty()) {
+            return getUserById(id);
         }
 
-        // Save updated user
+        // Set only the edited fields
         try {
-            User updatedUser = userRepository.save(user);
-            return ResponseEntity.ok(userService.convertToProfileDTO(updatedUser));
+            Optional<User> updatedUser = userProfileRepository.update(id, update);
+            if (updatedUser.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found");
+            }
+            userCache.invalidate(id);
+            return ResponseEntity.ok(userService.convertToProfileDTO(updatedUser.get()));
+        } catch (DuplicateKeyException e) {
+            // taken between the check above and the update
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Email is already in use");
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Failed to update user");
         }
@@ -95,4 +107,21 @@ public class UserController {
     public ResponseEntity<?> unfollowUser(@PathVariable String id, @RequestParam String followerId) {
         return userService.unfollowUser(id, followerId);
     }
+
+    @GetMapping("/{id}/followers")
+    public ResponseEntity<?> getFollowers(@PathVariable String id, @RequestParam(required = false) String before,
+            @RequestParam(defaultValue = "20") int limit) {
+        return userService.getFollowers(id, before, limit);
+    }
+
+    @GetMapping("/{id}/following")
+    public ResponseEntity<?> getFollowing(@PathVariable String id, @RequestParam(required = false) String before,
+            @RequestParam(defaultValue = "20") int limit) {
+        return userService.getFollowing(id, before, limit);
+    }
+
+    @GetMapping("/{id}/following/{followeeId}")
+    public ResponseEntity<?> isFollowing(@PathVariable String id, @PathVariable String followeeId) {
+        return userService.isFollowing(id, followeeId);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,124 @@
+package com.example.Backend.dto;
+
+import com.example.Backend.model.NutrientTotals;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+import java.util.Map;
+
+// response of the daily progress endpoint; foodLogs and waterLogs are only present in the full view
+public class DailyProgressDTO {
+
+    private int caloriesConsumed;
+
+    private Integer calorieGoal;
+
+    private int caloriesRemaining;
+
+    private int waterConsumed;
+
+    private Integer waterGoal;
+
+    private Map<String, Integer> mealCalories;
+
+    private NutrientTotals nutrients;
+
+    private String calorieStatus;
+
+    private String waterStatus;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<FoodLogEntryDTO> foodLogs;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<WaterLogEntryDTO> waterLogs;
+
+    // Getters and Setters
+    public int getCaloriesConsumed() {
+        return caloriesConsumed;
+    }
+
+    public void setCaloriesConsumed(int caloriesConsumed) {
+        this.caloriesConsumed = caloriesConsumed;
+    }
+
+    public Integer getCalorieGoal() {
+        return calorieGoal;
+    }
+
+    public void setCalorieGoal(Integer calorieGoal) {
+        this.calorieGoal = calorieGoal;
+    }
+
+    public int getCaloriesRemaining() {
+        return caloriesRemaining;
+    }
+
+    public void setCaloriesRemaining(int caloriesRemaining) {
+        this.caloriesRemaining = caloriesRemaining;
+    }
+
+    public int getWaterConsumed() {
+        return waterConsumed;
+    }
+
+    public void setWaterConsumed(int waterConsumed) {
+        this.waterConsumed = waterConsumed;
+    }
+
+    public Integer getWaterGoal() {
+        return waterGoal;
+    }
+
+    public void setWaterGoal(Integer waterGoal) {
+        this.waterGoal = waterGoal;
+    }
+
+    public Map<String, Integer> getMealCalories() {
+        return mealCalories;
+    }
+
+    public void setMealCalories(Map<String, Integer> mealCalories) {
+        this.mealCalories = mealCalories;
+    }
+
+    public NutrientTotals getNutrients() {
+        return nutrients;
+    }
+
+    public void setNutrients(NutrientTotals nutrients) {
+        this.nutrients = nutrients;
+    }
+
+    public String getCalorieStatus() {
+        return calorieStatus;
+    }
+
+    public void setCalorieStatus(String calorieStatus) {
+        this.calorieStatus = calorieStatus;
+    }
+
+    public String getWaterStatus() {
+        return waterStatus;
+    }
+
+    public void setWaterStatus(String waterStatus) {
+        this.waterStatus = waterStatus;
+    }
+
+    public List<FoodLogEntryDTO> getFoodLogs() {
+        return foodLogs;
+    }
+
+    public void setFoodLogs(List<FoodLogEntryDTO> foodLogs) {
+        this.foodLogs = foodLogs;
+    }
+
+    public List<WaterLogEntryDTO> getWaterLogs() {
+        return waterLogs;
+    }
+
+    public void setWaterLogs(List<WaterLogEntryDTO> waterLogs) {
+        this.waterLogs = waterLogs;
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.Backend.dto;
+
+import com.example.Backend.model.DailyTotals;
+import com.example.Backend.model.NutrientTotals;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+// one change to a day's totals as pushed to progress stream subscribers: the deltas of the write plus the
+// resulting totals, so a client that missed an event can resynchronise from the next one
+public class DailyProgressEvent {
+
+    private LocalDate date;
+
+    private int caloriesDelta;
+
+    private int glassesDelta;
+
+    private Map<String, Integer> mealCaloriesDelta = new HashMap<>();
+
+    private int caloriesConsumed;
+
+    private int waterConsumed;
+
+    private NutrientTotals nutrients;
+
+    public static DailyProgressEvent of(DailyTotals totals, int caloriesDelta, int glassesDelta,
+            Map<String, Integer> mealCaloriesDelta) {
+        DailyProgressEvent event = new DailyProgressEvent();
+        event.setDate(totals.getDate());
+        event.setCaloriesDelta(caloriesDelta);
+        event.setGlassesDelta(glassesDelta);
+        event.setMealCaloriesDelta(mealCaloriesDelta);
+        event.setCaloriesConsumed(totals.getCalories());
+        event.setWaterConsumed(totals.getGlasses());
+        event.setNutrients(totals.getNutrients());
+        return event;
+    }
+
+    // Getters and Setters
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public void setDate(LocalDate date) {
+        this.date = date;
+    }
+
+    public int getCaloriesDelta() {
+        return caloriesDelta;
+    }
+
+    public void setCaloriesDelta(int caloriesDelta) {
+        this.caloriesDelta = caloriesDelta;
+    }
+
+    public int getGlassesDelta() {
+        return glassesDelta;
+    }
+
+    public void setGlassesDelta(int glassesDelta) {
+        this.glassesDelta = glassesDelta;
+    }
+
+    public Map<String, Integer> getMealCaloriesDelta() {
+        return mealCaloriesDelta;
+    }
+
+    public void setMealCaloriesDelta(Map<String, Integer> mealCaloriesDelta) {
+        this.mealCaloriesDelta = mealCaloriesDelta;
+    }
+
+    public int getCaloriesConsumed() {
+        return caloriesConsumed;
+    }
+
+    public void setCaloriesConsumed(int caloriesConsumed) {
+        this.caloriesConsumed = caloriesConsumed;
+    }
+
+    public int getWaterConsumed() {
+        return waterConsumed;
+    }
+
+    public void setWaterConsumed(int waterConsumed) {
+        this.waterConsumed = waterConsumed;
+    }
+
+    public NutrientTotals getNutrients() {
+        return nutrients;
+    }
+
+    public void setNutrients(NutrientTotals nutrients) {
+        this.nutrients = nutrients;
+    }
+}
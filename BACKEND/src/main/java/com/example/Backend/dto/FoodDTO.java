@@ -0,0 +1,45 @@
+package com.example.Backend.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+public class FoodDTO {
+
+    @NotBlank(message = "Food name is required")
+    @Size(max = 100, message = "Food name must be at most 100 characters")
+    private String name;
+
+    @Size(max = 50, message = "Serving must be at most 50 characters")
+    private String serving;
+
+    @NotNull(message = "Calories are required")
+    @Min(value = 1, message = "Calories must be positive")
+    private Integer calories;
+
+    // Getters and Setters
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getServing() {
+        return serving;
+    }
+
+    public void setServing(String serving) {
+        this.serving = serving;
+    }
+
+    public Integer getCalories() {
+        return calories;
+    }
+
+    public void setCalories(Integer calories) {
+        this.calories = calories;
+    }
+}
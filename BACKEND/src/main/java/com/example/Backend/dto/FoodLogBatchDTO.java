@@ -0,0 +1,23 @@
+package com.example.Backend.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class FoodLogBatchDTO {
+
+    @NotEmpty(message = "At least one food entry is required")
+    @Size(max = 500, message = "A batch can contain at most 500 food entries")
+    private List<@Valid FoodLogDTO> entries;
+
+    // Getters and Setters
+    public List<FoodLogDTO> getEntries() {
+        return entries;
+    }
+
+    public void setEntries(List<FoodLogDTO> entries) {
+        this.entries = entries;
+    }
+}
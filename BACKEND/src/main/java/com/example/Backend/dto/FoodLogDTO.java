@@ -3,6 +3,7 @@ package com.example.Backend.dto;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
 
 import java.time.LocalDate;
 
@@ -21,6 +22,22 @@ public class FoodLogDTO {
     @NotNull(message = "Date is required")
     private LocalDate date;
 
+    // optional macronutrients: grams, sodium in milligrams
+    @PositiveOrZero(message = "Protein must not be negative")
+    private Double protein;
+
+    @PositiveOrZero(message = "Carbs must not be negative")
+    private Double carbs;
+
+    @PositiveOrZero(message = "Fat must not be negative")
+    private Double fat;
+
+    @PositiveOrZero(message = "Fiber must not be negative")
+    private Double fiber;
+
+    @PositiveOrZero(message = "Sodium must not be negative")
+    private Double sodium;
+
     // Getters and Setters
     public String getMealType() {
         return mealType;
@@ -53,4 +70,44 @@ public class FoodLogDTO {
     public void setDate(LocalDate date) {
         this.date = date;
     }
-}
\ No newline at end of file
+
+    public Double getProtein() {
+        return protein;
+    }
+
+    public void setProtein(Double protein) {
+        this.protein = protein;
+    }
+
+    public Double getCarbs() {
+        return carbs;
+    }
+
+    public void setCarbs(Double carbs) {
+        this.carbs = carbs;
+    }
+
+    public Double getFat() {
+        return fat;
+    }
+
+    public void setFat(Double fat) {
+        this.fat = fat;
+    }
+
+    public Double getFiber() {
+        return fiber;
+    }
+
+    public void setFiber(Double fiber) {
+        this.fiber = fiber;
+    }
+
+    public Double getSodium() {
+        return sodium;
+    }
+
+    public void setSodium(Double sodium) {
+        this.sodium = sodium;
+    }
+}
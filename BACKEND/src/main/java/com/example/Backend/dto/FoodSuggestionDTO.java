@@ -0,0 +1,56 @@
+package com.example.Backend.dto;
+
+// a catalog food matching a search, with how often the searching user has logged it
+public class FoodSuggestionDTO {
+
+    private String id;
+
+    private String name;
+
+    private String serving;
+
+    private Integer calories;
+
+    private int timesLogged;
+
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getServing() {
+        return serving;
+    }
+
+    public void setServing(String serving) {
+        this.serving = serving;
+    }
+
+    public Integer getCalories() {
+        return calories;
+    }
+
+    public void setCalories(Integer calories) {
+        this.calories = calories;
+    }
+
+    public int getTimesLogged() {
+        return timesLogged;
+    }
+
+    public void setTimesLogged(int timesLogged) {
+        this.timesLogged = timesLogged;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.Backend.dto;
+
+import java.time.Instant;
+
+// a food the user can log again with one tap
+public class FrequentFoodDTO {
+
+    private String foodName;
+
+    private String mealType;
+
+    private Integer calories;
+
+    private int timesLogged;
+
+    private Instant lastLoggedAt;
+
+    // Getters and Setters
+    public String getFoodName() {
+        return foodName;
+    }
+
+    public void setFoodName(String foodName) {
+        this.foodName = foodName;
+    }
+
+    public String getMealType() {
+        return mealType;
+    }
+
+    public void setMealType(String mealType) {
+        this.mealType = mealType;
+    }
+
+    public Integer getCalories() {
+        return calories;
+    }
+
+    public void setCalories(Integer calories) {
+        this.calories = calories;
+    }
+
+    public int getTimesLogged() {
+        return timesLogged;
+    }
+
+    public void setTimesLogged(int timesLogged) {
+        this.timesLogged = timesLogged;
+    }
+
+    public Instant getLastLoggedAt() {
+        return lastLoggedAt;
+    }
+
+    public void setLastLoggedAt(Instant lastLoggedAt) {
+        this.lastLoggedAt = lastLoggedAt;
+    }
+}
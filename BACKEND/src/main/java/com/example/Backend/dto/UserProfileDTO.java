@@ -12,8 +12,8 @@ public class UserProfileDTO {
     private String bio;
     private List<String> skills;
     private String location;
-    private List<String> followingUsers;
-    private List<String> followedUsers;
+    private long followersCount;
+    private long followingCount;
     private RegistrationSource registrationSource;
 
     // Getters and Setters
@@ -73,20 +73,20 @@ public class UserProfileDTO {
         this.location = location;
     }
 
-    public List<String> getFollowingUsers() {
-        return followingUsers;
+    public long getFollowersCount() {
+        return followersCount;
     }
 
-    public void setFollowingUsers(List<String> followingUsers) {
-        this.followingUsers = followingUsers;
+    public void setFollowersCount(long followersCount) {
+        this.followersCount = followersCount;
     }
 
-    public List<String> getFollowedUsers() {
-        return followedUsers;
+    public long getFollowingCount() {
+        return followingCount;
     }
 
-    public void setFollowedUsers(List<String> followedUsers) {
-        this.followedUsers = followedUsers;
+    public void setFollowingCount(long followingCount) {
+        this.followingCount = followingCount;
     }
 
     public RegistrationSource getRegistrationSource() {
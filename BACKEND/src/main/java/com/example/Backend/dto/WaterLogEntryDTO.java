@@ -0,0 +1,38 @@
+package com.example.Backend.dto;
+
+import java.time.LocalDate;
+
+// the fields of a water log shown in the daily list; read straight from water_logs as a projection
+public class WaterLogEntryDTO {
+
+    private String id;
+
+    private LocalDate date;
+
+    private Integer glasses;
+
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public void setDate(LocalDate date) {
+        this.date = date;
+    }
+
+    public Integer getGlasses() {
+        return glasses;
+    }
+
+    public void setGlasses(Integer glasses) {
+        this.glasses = glasses;
+    }
+}
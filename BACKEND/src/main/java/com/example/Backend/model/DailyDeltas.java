@@ -0,0 +1,100 @@
+package com.example.Backend.model;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// what a set of food and water logs adds to each of their days. Batch writes apply one Day per date to the
+// daily totals and the rollups, and the negated deltas of rows that were not written take them back out
+public class DailyDeltas {
+
+    private final Map<LocalDate, Day> days = new TreeMap<>();
+
+    public static DailyDeltas of(List<FoodLog> foodLogs, List<WaterLog> waterLogs) {
+        DailyDeltas deltas = new DailyDeltas();
+        foodLogs.forEach(deltas::addFood);
+        waterLogs.forEach(deltas::addWater);
+        return deltas;
+    }
+
+    public DailyDeltas addFood(FoodLog foodLog) {
+        Day day = day(foodLog.getDate());
+        day.mealCalories.merge(foodLog.getMealType(), foodLog.getCalories(), Integer::sum);
+        day.nutrients.add(foodLog);
+        day.calories += foodLog.getCalories();
+        day.foodEntries++;
+        return this;
+    }
+
+    public DailyDeltas addWater(WaterLog waterLog) {
+        Day day = day(waterLog.getDate());
+        day.glasses += waterLog.getGlasses();
+        day.waterEntries++;
+        return this;
+    }
+
+    // a new instance, the deltas of removing the same logs again
+    public DailyDeltas negated() {
+        DailyDeltas negated = new DailyDeltas();
+        days.forEach((date, day) -> {
+            Day negatedDay = negated.day(date);
+            day.mealCalories.forEach((mealType, calories) -> negatedDay.mealCalories.put(mealType, -calories));
+            negatedDay.nutrients.add(day.nutrients.negated());
+            negatedDay.calories = -day.calories;
+            negatedDay.foodEntries = -day.foodEntries;
+            negatedDay.glasses = -day.glasses;
+            negatedDay.waterEntries = -day.waterEntries;
+        });
+        return negated;
+    }
+
+    public boolean isEmpty() {
+        return days.isEmpty();
+    }
+
+    // in date order
+    public Map<LocalDate, Day> getDays() {
+        return days;
+    }
+
+    private Day day(LocalDate date) {
+        return days.computeIfAbsent(date, key -> new Day());
+    }
+
+    public static class Day {
+
+        private final Map<String, Integer> mealCalories = new HashMap<>(); // meal type as logged -> calories
+        private final NutrientTotals nutrients = new NutrientTotals();
+        private int calories;
+        private int foodEntries;
+        private int glasses;
+        private int waterEntries;
+
+        // Getters
+        public Map<String, Integer> getMealCalories() {
+            return mealCalories;
+        }
+
+        public NutrientTotals getNutrients() {
+            return nutrients;
+        }
+
+        public int getCalories() {
+            return calories;
+        }
+
+        public int getFoodEntries() {
+            return foodEntries;
+        }
+
+        public int getGlasses() {
+            return glasses;
+        }
+
+        public int getWaterEntries() {
+            return waterEntries;
+        }
+    }
+}
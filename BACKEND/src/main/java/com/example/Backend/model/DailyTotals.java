@@ -0,0 +1,107 @@
+package com.example.Backend.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+// materialized per-day totals, kept in step with food_logs/water_logs by $inc on every write
+@Document(collection = "daily_totals")
+@CompoundIndex(name = "user_date_idx", def = "{'userId': 1, 'date': 1}", unique = true)
+public class DailyTotals {
+
+    @Id
+    private String id;
+
+    private String userId;
+
+    private LocalDate date;
+
+    private int calories;
+
+    private int glasses;
+
+    private int foodEntries;
+
+    private int waterEntries;
+
+    private Map<String, Integer> mealCalories = new HashMap<>(); // e.g., "breakfast" -> 450
+
+    private NutrientTotals nutrients = new NutrientTotals();
+
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public void setDate(LocalDate date) {
+        this.date = date;
+    }
+
+    public int getCalories() {
+        return calories;
+    }
+
+    public void setCalories(int calories) {
+        this.calories = calories;
+    }
+
+    public int getGlasses() {
+        return glasses;
+    }
+
+    public void setGlasses(int glasses) {
+        this.glasses = glasses;
+    }
+
+    public int getFoodEntries() {
+        return foodEntries;
+    }
+
+    public void setFoodEntries(int foodEntries) {
+        this.foodEntries = foodEntries;
+    }
+
+    public int getWaterEntries() {
+        return waterEntries;
+    }
+
+    public void setWaterEntries(int waterEntries) {
+        this.waterEntries = waterEntries;
+    }
+
+    public Map<String, Integer> getMealCalories() {
+        return mealCalories;
+    }
+
+    public void setMealCalories(Map<String, Integer> mealCalories) {
+        this.mealCalories = mealCalories;
+    }
+
+    public NutrientTotals getNutrients() {
+        return nutrients;
+    }
+
+    public void setNutrients(NutrientTotals nutrients) {
+        this.nutrients = nutrients;
+    }
+}
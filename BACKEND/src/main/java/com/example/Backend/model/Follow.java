@@ -0,0 +1,61 @@
+package com.example.Backend.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+// one follower -> followee edge; users only keep the counts, so a popular account stays a small document
+@Document(collection = "follows")
+@CompoundIndexes({
+        @CompoundIndex(name = "follower_followee_idx", def = "{'followerId': 1, 'followeeId': 1}", unique = true),
+        // newest-first pages of who a user follows and who follows them, keyset on _id
+        @CompoundIndex(name = "follower_id_desc_idx", def = "{'followerId': 1, '_id': -1}"),
+        @CompoundIndex(name = "followee_id_desc_idx", def = "{'followeeId': 1, '_id': -1}")
+})
+public class Follow {
+
+    @Id
+    private String id;
+
+    private String followerId;
+
+    private String followeeId;
+
+    private Instant createdAt;
+
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getFollowerId() {
+        return followerId;
+    }
+
+    public void setFollowerId(String followerId) {
+        this.followerId = followerId;
+    }
+
+    public String getFolloweeId() {
+        return followeeId;
+    }
+
+    public void setFolloweeId(String followeeId) {
+        this.followeeId = followeeId;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+}
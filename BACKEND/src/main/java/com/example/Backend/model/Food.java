@@ -0,0 +1,53 @@
+package com.example.Backend.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+// an entry of the shared food catalog that log entries can be picked from
+@Document(collection = "foods")
+@CompoundIndex(name = "name_serving_idx", def = "{'name': 1, 'serving': 1}", unique = true)
+public class Food {
+
+    @Id
+    private String id;
+
+    private String name; // e.g., "Rice + Curry"
+
+    private String serving; // e.g., "1 plate", may be empty
+
+    private Integer calories; // per serving
+
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getServing() {
+        return serving;
+    }
+
+    public void setServing(String serving) {
+        this.serving = serving;
+    }
+
+    public Integer getCalories() {
+        return calories;
+    }
+
+    public void setCalories(Integer calories) {
+        this.calories = calories;
+    }
+}
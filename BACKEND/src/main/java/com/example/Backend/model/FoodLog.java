@@ -1,11 +1,18 @@
 package com.example.Backend.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDate;
 
 @Document(collection = "food_logs")
+@CompoundIndexes({
+        @CompoundIndex(name = "user_date_idx", def = "{'userId': 1, 'date': 1}"),
+        // newest-first history pages, keyset on (date, _id)
+        @CompoundIndex(name = "user_date_id_desc_idx", def = "{'userId': 1, 'date': -1, '_id': -1}")
+})
 public class FoodLog {
 
     @Id
@@ -21,6 +28,17 @@ public class FoodLog {
 
     private Integer calories;
 
+    // optional, see Nutrient for the units
+    private Double protein;
+
+    private Double carbs;
+
+    private Double fat;
+
+    private Double fiber;
+
+    private Double sodium;
+
     // Getters and Setters
     public String getId() {
         return id;
@@ -69,4 +87,44 @@ public class FoodLog {
     public void setCalories(Integer calories) {
         this.calories = calories;
     }
-}
\ No newline at end of file
+
+    public Double getProtein() {
+        return protein;
+    }
+
+    public void setProtein(Double protein) {
+        this.protein = protein;
+    }
+
+    public Double getCarbs() {
+        return carbs;
+    }
+
+    public void setCarbs(Double carbs) {
+        this.carbs = carbs;
+    }
+
+    public Double getFat() {
+        return fat;
+    }
+
+    public void setFat(Double fat) {
+        this.fat = fat;
+    }
+
+    public Double getFiber() {
+        return fiber;
+    }
+
+    public void setFiber(Double fiber) {
+        this.fiber = fiber;
+    }
+
+    public Double getSodium() {
+        return sodium;
+    }
+
+    public void setSodium(Double sodium) {
+        this.sodium = sodium;
+    }
+}
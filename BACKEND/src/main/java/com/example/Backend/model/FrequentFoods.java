@@ -0,0 +1,91 @@
+package com.example.Backend.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+// the foods a user logs most often and most recently, one document per user; written lazily from
+// FrequentFoodsCache, so it can trail the food_logs by up to one flush interval
+@Document(collection = "frequent_foods")
+public class FrequentFoods {
+
+    @Id
+    private String userId;
+
+    private List<Entry> foods = new ArrayList<>();
+
+    // Getters and Setters
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public List<Entry> getFoods() {
+        return foods;
+    }
+
+    public void setFoods(List<Entry> foods) {
+        this.foods = foods;
+    }
+
+    // one (foodName, mealType, calories) combination
+    public static class Entry {
+
+        private String foodName;
+
+        private String mealType;
+
+        private Integer calories;
+
+        private int count;
+
+        private Instant lastLoggedAt;
+
+        // Getters and Setters
+        public String getFoodName() {
+            return foodName;
+        }
+
+        public void setFoodName(String foodName) {
+            this.foodName = foodName;
+        }
+
+        public String getMealType() {
+            return mealType;
+        }
+
+        public void setMealType(String mealType) {
+            this.mealType = mealType;
+        }
+
+        public Integer getCalories() {
+            return calories;
+        }
+
+        public void setCalories(Integer calories) {
+            this.calories = calories;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public void setCount(int count) {
+            this.count = count;
+        }
+
+        public Instant getLastLoggedAt() {
+            return lastLoggedAt;
+        }
+
+        public void setLastLoggedAt(Instant lastLoggedAt) {
+            this.lastLoggedAt = lastLoggedAt;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.Backend.model;
+
+import java.util.Arrays;
+import java.util.function.Function;
+
+// the nutrients tracked besides calories; the ordinal is the slot in NutrientTotals and field the name used in
+// documents and responses. Sodium is in milligrams, everything else in grams
+public enum Nutrient {
+
+    PROTEIN("protein", FoodLog::getProtein),
+    CARBS("carbs", FoodLog::getCarbs),
+    FAT("fat", FoodLog::getFat),
+    FIBER("fiber", FoodLog::getFiber),
+    SODIUM("sodium", FoodLog::getSodium);
+
+    // values() clones the array on every call
+    static final Nutrient[] ALL = values();
+
+    private static final String[] FIELDS = Arrays.stream(ALL).map(Nutrient::field).toArray(String[]::new);
+
+    private final String field;
+    private final Function<FoodLog, Double> amount;
+
+    Nutrient(String field, Function<FoodLog, Double> amount) {
+        this.field = field;
+        this.amount = amount;
+    }
+
+    public String field() {
+        return field;
+    }
+
+    // the food log fields of all nutrients, for projections
+    public static String[] fields() {
+        return FIELDS.clone();
+    }
+
+    // the amount as logged, null when the food log does not have it
+    public Double logged(FoodLog foodLog) {
+        return amount.apply(foodLog);
+    }
+
+    // the amount in one food log, 0 when it was logged without it
+    public double of(FoodLog foodLog) {
+        Double value = amount.apply(foodLog);
+        return value != null ? value : 0;
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.Backend.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.bson.Document;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+import org.springframework.data.convert.WritingConverter;
+
+import java.io.IOException;
+
+// summed amounts of every Nutrient in one fixed double[] (indexed by ordinal), so adding up many logs or days
+// allocates nothing per nutrient. Stored as a sub-document with one field per nutrient ({protein: 12.5, ...}),
+// which lets the repositories $inc single amounts, and serialized the same way in responses
+@JsonSerialize(using = NutrientTotals.Serializer.class)
+public class NutrientTotals {
+
+    private final double[] amounts = new double[Nutrient.ALL.length];
+
+    public static NutrientTotals of(FoodLog foodLog) {
+        return new NutrientTotals().add(foodLog);
+    }
+
+    public double get(Nutrient nutrient) {
+        return amounts[nutrient.ordinal()];
+    }
+
+    public void set(Nutrient nutrient, double amount) {
+        amounts[nutrient.ordinal()] = amount;
+    }
+
+    public NutrientTotals add(FoodLog foodLog) {
+        for (Nutrient nutrient : Nutrient.ALL) {
+            amounts[nutrient.ordinal()] += nutrient.of(foodLog);
+        }
+        return this;
+    }
+
+    public NutrientTotals add(NutrientTotals other) {
+        if (other != null) {
+            for (int i = 0; i < amounts.length; i++) {
+                amounts[i] += other.amounts[i];
+            }
+        }
+        return this;
+    }
+
+    // a new instance, e.g. the delta of deleting a log
+    public NutrientTotals negated() {
+        NutrientTotals negated = new NutrientTotals();
+        for (int i = 0; i < amounts.length; i++) {
+            negated.amounts[i] = -amounts[i];
+        }
+        return negated;
+    }
+
+    // a new instance with every amount divided by count, e.g. the mean of the logged days
+    public NutrientTotals dividedBy(int count) {
+        NutrientTotals divided = new NutrientTotals();
+        if (count > 0) {
+            for (int i = 0; i < amounts.length; i++) {
+                divided.amounts[i] = amounts[i] / count;
+            }
+        }
+        return divided;
+    }
+
+    public boolean isZero() {
+        for (double amount : amounts) {
+            if (amount != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // $inc sums of fractional amounts drift (0.1 + 0.2), one decimal is all a client shows anyway
+    static double rounded(double amount) {
+        return Math.round(amount * 10) / 10.0;
+    }
+
+    public static class Serializer extends JsonSerializer<NutrientTotals> {
+
+        @Override
+        public void serialize(NutrientTotals totals, JsonGenerator generator, SerializerProvider provider)
+                throws IOException {
+            generator.writeStartObject();
+            for (Nutrient nutrient : Nutrient.ALL) {
+                generator.writeNumberField(nutrient.field(), rounded(totals.get(nutrient)));
+            }
+            generator.writeEndObject();
+        }
+    }
+
+    @WritingConverter
+    public static class Writer implements Converter<NutrientTotals, Document> {
+
+        @Override
+        public Document convert(NutrientTotals totals) {
+            Document document = new Document();
+            for (Nutrient nutrient : Nutrient.ALL) {
+                document.put(nutrient.field(), totals.get(nutrient));
+            }
+            return document;
+        }
+    }
+
+    // missing fields (documents written before a nutrient was tracked) read as 0
+    @ReadingConverter
+    public static class Reader implements Converter<Document, NutrientTotals> {
+
+        @Override
+        public NutrientTotals convert(Document document) {
+            NutrientTotals totals = new NutrientTotals();
+            for (Nutrient nutrient : Nutrient.ALL) {
+                Object amount = document.get(nutrient.field());
+                if (amount instanceof Number number) {
+                    totals.set(nutrient, number.doubleValue());
+                }
+            }
+            return totals;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.Backend.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+// per-user totals of one ISO week or one calendar month, kept in step with the logs by $inc like DailyTotals.
+// The days map holds each logged day of the period, so goal counts and mean/min/max are derived on read
+// (goals change, and a minimum cannot be maintained through deletes)
+@Document(collection = "nutrition_rollups")
+@CompoundIndex(name = "user_period_start_idx", def = "{'userId': 1, 'period': 1, 'start': 1}", unique = true)
+public class NutritionRollup {
+
+    public static final String WEEK = "week";
+    public static final String MONTH = "month";
+
+    @Id
+    private String id;
+
+    private String userId;
+
+    private String period; // WEEK or MONTH
+
+    private LocalDate start; // Monday of the week, first day of the month
+
+    private LocalDate end;
+
+    private int calories;
+
+    private int glasses;
+
+    private NutrientTotals nutrients = new NutrientTotals();
+
+    private Map<String, Day> days = new HashMap<>(); // ISO date -> totals of that day
+
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public String getPeriod() {
+        return period;
+    }
+
+    public void setPeriod(String period) {
+        this.period = period;
+    }
+
+    public LocalDate getStart() {
+        return start;
+    }
+
+    public void setStart(LocalDate start) {
+        this.start = start;
+    }
+
+    public LocalDate getEnd() {
+        return end;
+    }
+
+    public void setEnd(LocalDate end) {
+        this.end = end;
+    }
+
+    public int getCalories() {
+        return calories;
+    }
+
+    public void setCalories(int calories) {
+        this.calories = calories;
+    }
+
+    public int getGlasses() {
+        return glasses;
+    }
+
+    public void setGlasses(int glasses) {
+        this.glasses = glasses;
+    }
+
+    public NutrientTotals getNutrients() {
+        return nutrients;
+    }
+
+    public void setNutrients(NutrientTotals nutrients) {
+        this.nutrients = nutrients;
+    }
+
+    public Map<String, Day> getDays() {
+        return days;
+    }
+
+    public void setDays(Map<String, Day> days) {
+        this.days = days;
+    }
+
+    public static class Day {
+
+        private int calories;
+
+        private int glasses;
+
+        private int foodEntries;
+
+        private int waterEntries;
+
+        private NutrientTotals nutrients = new NutrientTotals();
+
+        public int getCalories() {
+            return calories;
+        }
+
+        public void setCalories(int calories) {
+            this.calories = calories;
+        }
+
+        public int getGlasses() {
+            return glasses;
+        }
+
+        public void setGlasses(int glasses) {
+            this.glasses = glasses;
+        }
+
+        public int getFoodEntries() {
+            return foodEntries;
+        }
+
+        public void setFoodEntries(int foodEntries) {
+            this.foodEntries = foodEntries;
+        }
+
+        public int getWaterEntries() {
+            return waterEntries;
+        }
+
+        public void setWaterEntries(int waterEntries) {
+            this.waterEntries = waterEntries;
+        }
+
+        public NutrientTotals getNutrients() {
+            return nutrients;
+        }
+
+        public void setNutrients(NutrientTotals nutrients) {
+            this.nutrients = nutrients;
+        }
+    }
+}
@@ -25,9 +25,10 @@ public class User {
 
     private String password;
 
-    private List<String> followingUsers = new ArrayList<>();
+    // maintained with the edges in the follows collection
+    private long followersCount;
 
-    private List<String> followedUsers = new ArrayList<>();
+    private long followingCount;
 
     private String bio;
 
@@ -101,20 +102,20 @@ public class User {
         this.password = password;
     }
 
-    public List<String> getFollowingUsers() {
-        return followingUsers;
+    public long getFollowersCount() {
+        return followersCount;
     }
 
-    public void setFollowingUsers(List<String> followingUsers) {
-        this.followingUsers = followingUsers;
+    public void setFollowersCount(long followersCount) {
+        this.followersCount = followersCount;
     }
 
-    public List<String> getFollowedUsers() {
-        return followedUsers;
+    public long getFollowingCount() {
+        return followingCount;
     }
 
-    public void setFollowedUsers(List<String> followedUsers) {
-        this.followedUsers = followedUsers;
+    public void setFollowingCount(long followingCount) {
+        this.followingCount = followingCount;
     }
 
     public String getBio() {
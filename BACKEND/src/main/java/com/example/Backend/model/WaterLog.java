@@ -1,11 +1,13 @@
 package com.example.Backend.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDate;
 
 @Document(collection = "water_logs")
+@CompoundIndex(name = "user_date_idx", def = "{'userId': 1, 'date': 1}")
 public class WaterLog {
 
     @Id
@@ -0,0 +1,184 @@
+package com.example.Backend.repository;
+
+import com.example.Backend.model.DailyTotals;
+import com.example.Backend.model.FoodLog;
+import com.example.Backend.model.Nutrient;
+import com.example.Backend.model.NutrientTotals;
+import com.example.Backend.model.WaterLog;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Callers apply a delta before they write or delete the log it stands for, so a day's document exists before
+// any of its logs does. A missing document therefore only lacks logs written before totals existed: it is
+// seeded from the logs insert-only (a concurrent seed or delta is never overwritten) and the delta applied on
+// top, and a log whose delta is still on its way can never be part of a seed
+@Repository
+public class DailyTotalsRepository {
+
+    private final MongoTemplate mongoTemplate;
+    private final FoodLogRepository foodLogRepository;
+    private final WaterLogRepository waterLogRepository;
+
+    @Autowired
+    public DailyTotalsRepository(MongoTemplate mongoTemplate, FoodLogRepository foodLogRepository,
+            WaterLogRepository waterLogRepository) {
+        this.mongoTemplate = mongoTemplate;
+        this.foodLogRepository = foodLogRepository;
+        this.waterLogRepository = waterLogRepository;
+    }
+
+    public DailyTotals findOrRebuild(String userId, LocalDate date) {
+        DailyTotals totals = mongoTemplate.findOne(byUserAndDate(userId, date).maxTimeMsec(ReadLimits.MAX_TIME_MS),
+                DailyTotals.class);
+        if (totals != null) {
+            return totals;
+        }
+
+        List<FoodLog> foodLogs = foodLogRepository.findByUserIdAndDate(userId, date);
+        List<WaterLog> waterLogs = waterLogRepository.findByUserIdAndDate(userId, date);
+        if (foodLogs.isEmpty() && waterLogs.isEmpty()) {
+            // nothing logged that day, don't persist an empty document just because it was viewed
+            DailyTotals empty = new DailyTotals();
+            empty.setUserId(userId);
+            empty.setDate(date);
+            return empty;
+        }
+        return seed(userId, date, foodLogs, waterLogs);
+    }
+
+    public DailyTotals applyFoodDelta(String userId, LocalDate date, String mealType, int calories,
+            NutrientTotals nutrients, int entries) {
+        Update update = new Update()
+                .inc("calories", calories)
+                .inc("foodEntries", entries)
+                .inc("mealCalories." + mealKey(mealType), calories);
+        return incrementOrRebuild(userId, date, incNutrients(update, "nutrients", nutrients));
+    }
+
+    // applies several food entries of the same day in one round trip, mealCalories is keyed by meal type
+    public DailyTotals applyFoodDelta(String userId, LocalDate date, Map<String, Integer> mealCalories,
+            NutrientTotals nutrients, int entries) {
+        Map<String, Integer> byMealKey = new HashMap<>();
+        mealCalories.forEach((mealType, calories) -> byMealKey.merge(mealKey(mealType), calories, Integer::sum));
+
+        Update update = new Update().inc("foodEntries", entries);
+        int calories = 0;
+        for (Map.Entry<String, Integer> meal : byMealKey.entrySet()) {
+            update.inc("mealCalories." + meal.getKey(), meal.getValue());
+            calories += meal.getValue();
+        }
+        update.inc("calories", calories);
+        return incrementOrRebuild(userId, date, incNutrients(update, "nutrients", nutrients));
+    }
+
+    public DailyTotals applyWaterDelta(String userId, LocalDate date, int glasses, int entries) {
+        Update update = new Update()
+                .inc("glasses", glasses)
+                .inc("waterEntries", entries);
+        return incrementOrRebuild(userId, date, update);
+    }
+
+    // overwrites the day with the sums of its logs, to repair a document; a write of the same day that is
+    // in progress meanwhile can be lost or counted twice
+    public DailyTotals rebuild(String userId, LocalDate date) {
+        return mongoTemplate.findAndModify(byUserAndDate(userId, date),
+                totalsUpdate(foodLogRepository.findByUserIdAndDate(userId, date),
+                        waterLogRepository.findByUserIdAndDate(userId, date)),
+                FindAndModifyOptions.options().returnNew(true).upsert(true), DailyTotals.class);
+    }
+
+    private DailyTotals incrementOrRebuild(String userId, LocalDate date, Update update) {
+        DailyTotals totals = mongoTemplate.findAndModify(byUserAndDate(userId, date), update,
+                FindAndModifyOptions.options().returnNew(true), DailyTotals.class);
+        if (totals != null) {
+            return totals;
+        }
+
+        // first write for this day (or a day logged before totals existed)
+        seed(userId, date, foodLogRepository.findByUserIdAndDate(userId, date),
+                waterLogRepository.findByUserIdAndDate(userId, date));
+        return mongoTemplate.findAndModify(byUserAndDate(userId, date), update,
+                FindAndModifyOptions.options().returnNew(true), DailyTotals.class);
+    }
+
+    private DailyTotals seed(String userId, LocalDate date, List<FoodLog> foodLogs, List<WaterLog> waterLogs) {
+        try {
+            return mongoTemplate.findAndModify(byUserAndDate(userId, date), seedUpdate(foodLogs, waterLogs),
+                    FindAndModifyOptions.options().returnNew(true).upsert(true), DailyTotals.class);
+        } catch (DuplicateKeyException e) {
+            // a concurrent upsert of the same day created it first
+            return mongoTemplate.findOne(byUserAndDate(userId, date), DailyTotals.class);
+        }
+    }
+
+    // $set of every field, computed from the complete set of one day's logs
+    public static Update totalsUpdate(List<FoodLog> foodLogs, List<WaterLog> waterLogs) {
+        Update update = new Update();
+        totals(foodLogs, waterLogs).forEach(update::set);
+        return update;
+    }
+
+    // the same fields as $setOnInsert, for seeding a day that has no document yet
+    public static Update seedUpdate(List<FoodLog> foodLogs, List<WaterLog> waterLogs) {
+        Update update = new Update();
+        totals(foodLogs, waterLogs).forEach(update::setOnInsert);
+        return update;
+    }
+
+    private static Map<String, Object> totals(List<FoodLog> foodLogs, List<WaterLog> waterLogs) {
+        Map<String, Integer> mealCalories = new HashMap<>();
+        NutrientTotals nutrients = new NutrientTotals();
+        int calories = 0;
+        for (FoodLog log : foodLogs) {
+            calories += log.getCalories();
+            mealCalories.merge(mealKey(log.getMealType()), log.getCalories(), Integer::sum);
+            nutrients.add(log);
+        }
+        int glasses = waterLogs.stream().mapToInt(WaterLog::getGlasses).sum();
+
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("calories", calories);
+        fields.put("glasses", glasses);
+        fields.put("foodEntries", foodLogs.size());
+        fields.put("waterEntries", waterLogs.size());
+        fields.put("mealCalories", mealCalories);
+        fields.put("nutrients", nutrients);
+        return fields;
+    }
+
+    // $inc of the non-zero amounts below path (e.g. "nutrients.protein"), nutrients may be null
+    public static Update incNutrients(Update update, String path, NutrientTotals nutrients) {
+        if (nutrients != null) {
+            for (Nutrient nutrient : Nutrient.values()) {
+                if (nutrients.get(nutrient) != 0) {
+                    update.inc(path + "." + nutrient.field(), nutrients.get(nutrient));
+                }
+            }
+        }
+        return update;
+    }
+
+    public static Query byUserAndDate(String userId, LocalDate date) {
+        return Query.query(Criteria.where("userId").is(userId).and("date").is(date));
+    }
+
+    // meal types become field names inside mealCalories, so keep them free of path characters
+    public static String mealKey(String mealType) {
+        if (mealType == null || mealType.isBlank()) {
+            return "other";
+        }
+        return mealType.trim().toLowerCase().replace('.', '_').replace('$', '_');
+    }
+}
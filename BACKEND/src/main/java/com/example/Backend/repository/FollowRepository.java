@@ -0,0 +1,99 @@
+package com.example.Backend.repository;
+
+import com.example.Backend.model.Follow;
+import com.example.Backend.model.User;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+// follower -> followee edges. Following is a single insert guarded by follower_followee_idx and unfollowing a
+// single delete, so concurrent requests cannot create duplicates; the counts on both users move only when the
+// edge actually changed
+@Repository
+public class FollowRepository {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Autowired
+    public FollowRepository(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    // false when the edge already existed
+    public boolean follow(String followerId, String followeeId) {
+        Follow follow = new Follow();
+        follow.setFollowerId(followerId);
+        follow.setFolloweeId(followeeId);
+        follow.setCreatedAt(Instant.now());
+        try {
+            mongoTemplate.insert(follow);
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+        incCounts(followerId, followeeId, 1);
+        return true;
+    }
+
+    // false when there was no edge to remove
+    public boolean unfollow(String followerId, String followeeId) {
+        long deleted = mongoTemplate.remove(edgeQuery(followerId, followeeId), Follow.class).getDeletedCount();
+        if (deleted == 0) {
+            return false;
+        }
+        incCounts(followerId, followeeId, -1);
+        return true;
+    }
+
+    public boolean isFollowing(String followerId, String followeeId) {
+        return mongoTemplate.exists(edgeQuery(followerId, followeeId), Follow.class);
+    }
+
+    // newest first; beforeId is the id of the last edge of the previous page, null for the first page
+    public List<Follow> findFollowers(String userId, ObjectId beforeId, int limit) {
+        return mongoTemplate.find(pageQuery("followeeId", userId, beforeId, limit), Follow.class);
+    }
+
+    public List<Follow> findFollowing(String userId, ObjectId beforeId, int limit) {
+        return mongoTemplate.find(pageQuery("followerId", userId, beforeId, limit), Follow.class);
+    }
+
+    // sets both counts of a user from the edges, for repairs and migrations
+    public void recount(String userId) {
+        long followers = mongoTemplate.count(Query.query(Criteria.where("followeeId").is(userId)), Follow.class);
+        long following = mongoTemplate.count(Query.query(Criteria.where("followerId").is(userId)), Follow.class);
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(userId)),
+                new Update().set("followersCount", followers).set("followingCount", following), User.class);
+    }
+
+    // both users in one round trip; each $inc is atomic on its document, so concurrent follows never lose counts
+    private void incCounts(String followerId, String followeeId, int delta) {
+        mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class)
+                .updateOne(Query.query(Criteria.where("_id").is(followerId)), new Update().inc("followingCount", delta))
+                .updateOne(Query.query(Criteria.where("_id").is(followeeId)), new Update().inc("followersCount", delta))
+                .execute();
+    }
+
+    private static Query edgeQuery(String followerId, String followeeId) {
+        return Query.query(Criteria.where("followerId").is(followerId).and("followeeId").is(followeeId));
+    }
+
+    private static Query pageQuery(String field, String userId, ObjectId beforeId, int limit) {
+        Criteria criteria = Criteria.where(field).is(userId);
+        if (beforeId != null) {
+            criteria.and("_id").lt(beforeId);
+        }
+        return Query.query(criteria)
+                .with(Sort.by(Sort.Direction.DESC, "_id"))
+                .limit(limit);
+    }
+}
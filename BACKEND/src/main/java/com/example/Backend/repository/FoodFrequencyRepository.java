@@ -0,0 +1,90 @@
+package com.example.Backend.repository;
+
+import com.example.Backend.model.FoodLog;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// how often a user logged each (foodName, mealType, calories) combination, counted by MongoDB ($match on the
+// userId prefix of user_date_idx, then $group) so only the top combinations are returned. This reads the
+// user's whole history and is only used to seed the frequent foods of users that have none stored yet
+@Repository
+public class FoodFrequencyRepository {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Autowired
+    public FoodFrequencyRepository(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public List<FoodCount> topFoods(String userId, int limit) {
+        return mongoTemplate.aggregate(Aggregation.newAggregation(FoodLog.class,
+                Aggregation.match(Criteria.where("userId").is(userId)),
+                Aggregation.group("foodName", "mealType", "calories").count().as("count")
+                        .max("date").as("lastLogged"),
+                Aggregation.sort(Sort.by(Sort.Order.desc("count"), Sort.Order.desc("lastLogged"))),
+                Aggregation.limit(limit),
+                Aggregation.project("foodName", "mealType", "calories", "count", "lastLogged").andExclude("_id")),
+                FoodCount.class).getMappedResults();
+    }
+
+    public static class FoodCount {
+
+        private String foodName;
+
+        private String mealType;
+
+        private Integer calories;
+
+        private int count;
+
+        private LocalDate lastLogged;
+
+        public String getFoodName() {
+            return foodName;
+        }
+
+        public void setFoodName(String foodName) {
+            this.foodName = foodName;
+        }
+
+        public String getMealType() {
+            return mealType;
+        }
+
+        public void setMealType(String mealType) {
+            this.mealType = mealType;
+        }
+
+        public Integer getCalories() {
+            return calories;
+        }
+
+        public void setCalories(Integer calories) {
+            this.calories = calories;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public void setCount(int count) {
+            this.count = count;
+        }
+
+        public LocalDate getLastLogged() {
+            return lastLogged;
+        }
+
+        public void setLastLogged(LocalDate lastLogged) {
+            this.lastLogged = lastLogged;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.Backend.repository;
+
+import com.example.Backend.dto.FoodLogEntryDTO;
+import com.example.Backend.model.FoodLog;
+import com.example.Backend.model.Nutrient;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// newest-first pages of a user's food logs, seeking past the last (date, _id) seen instead of skipping,
+// so every page is one bounded walk of user_date_id_desc_idx however long the history is
+@Repository
+public class FoodLogHistoryRepository {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Autowired
+    public FoodLogHistoryRepository(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    // beforeDate and beforeId are both null for the first page
+    public List<FoodLogEntryDTO> findPage(String userId, LocalDate beforeDate, ObjectId beforeId, int limit) {
+        return mongoTemplate.query(FoodLog.class)
+                .as(FoodLogEntryDTO.class)
+                .matching(pageQuery(userId, beforeDate, beforeId, limit))
+                .all();
+    }
+
+    public static Query pageQuery(String userId, LocalDate beforeDate, ObjectId beforeId, int limit) {
+        Criteria criteria = Criteria.where("userId").is(userId);
+        if (beforeDate != null) {
+            criteria.orOperator(
+                    Criteria.where("date").lt(beforeDate),
+                    Criteria.where("date").is(beforeDate).and("_id").lt(beforeId));
+        }
+
+        Query query = Query.query(criteria)
+                .with(Sort.by(Sort.Direction.DESC, "date", "_id"))
+                .limit(limit);
+        query.fields().include("date", "mealType", "foodName", "calories").include(Nutrient.fields());
+        return query;
+    }
+}
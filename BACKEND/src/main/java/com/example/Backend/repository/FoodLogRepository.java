@@ -1,13 +1,23 @@
 package com.example.Backend.repository;
 
+import com.example.Backend.dto.FoodLogEntryDTO;
 import com.example.Backend.model.FoodLog;
+import org.springframework.data.mongodb.repository.Meta;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
 import java.time.LocalDate;
 import java.util.List;
 
 public interface FoodLogRepository extends MongoRepository<FoodLog, String> {
+    @Meta(maxExecutionTimeMs = ReadLimits.MAX_TIME_MS)
     List<FoodLog> findByUserIdAndDate(String userId, LocalDate date);
 
+    // only the fields of FoodLogEntryDTO are read
+    @Meta(maxExecutionTimeMs = ReadLimits.MAX_TIME_MS)
+    List<FoodLogEntryDTO> findEntriesByUserIdAndDate(String userId, LocalDate date);
+
     List<FoodLog> findByUserIdAndDateBetween(String userId, LocalDate startDate, LocalDate endDate);
+
+    // the number of logs removed, 0 when it was already gone
+    long deleteByIdAndUserId(String id, String userId);
 }
\ No newline at end of file
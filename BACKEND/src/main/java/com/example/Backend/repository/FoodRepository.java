@@ -0,0 +1,7 @@
+package com.example.Backend.repository;
+
+import com.example.Backend.model.Food;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface FoodRepository extends MongoRepository<Food, String> {
+}
@@ -0,0 +1,7 @@
+package com.example.Backend.repository;
+
+import com.example.Backend.model.FrequentFoods;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface FrequentFoodsRepository extends MongoRepository<FrequentFoods, String> {
+}
@@ -0,0 +1,51 @@
+package com.example.Backend.repository;
+
+import com.example.Backend.model.FoodLog;
+import com.example.Backend.model.WaterLog;
+import com.mongodb.bulk.BulkWriteError;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// unordered bulk inserts: the server applies the whole batch even when single documents fail, and the
+// failures are reported by their position in the batch
+@Repository
+public class LogBulkRepository {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Autowired
+    public LogBulkRepository(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    // returns the error message of every document that was not inserted, keyed by its index in the list
+    public Map<Integer, String> insertFoodLogs(List<FoodLog> foodLogs) {
+        return insert(FoodLog.class, foodLogs);
+    }
+
+    public Map<Integer, String> insertWaterLogs(List<WaterLog> waterLogs) {
+        return insert(WaterLog.class, waterLogs);
+    }
+
+    private Map<Integer, String> insert(Class<?> document, List<?> documents) {
+        Map<Integer, String> failed = new HashMap<>();
+        if (documents.isEmpty()) {
+            return failed;
+        }
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, document).insert(documents).execute();
+        } catch (BulkOperationException e) {
+            for (BulkWriteError error : e.getErrors()) {
+                failed.put(error.getIndex(), error.getMessage());
+            }
+        }
+        return failed;
+    }
+}
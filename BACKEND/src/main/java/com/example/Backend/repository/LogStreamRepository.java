@@ -0,0 +1,47 @@
+package com.example.Backend.repository;
+
+import com.example.Backend.model.FoodLog;
+import com.example.Backend.model.Nutrient;
+import com.example.Backend.model.WaterLog;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.stream.Stream;
+
+// a user's complete food and water history as date-ordered cursors; documents are fetched batch by batch
+// while the stream is consumed, so callers must close the stream
+@Repository
+public class LogStreamRepository {
+
+    private static final int CURSOR_BATCH_SIZE = 1000;
+
+    private final MongoTemplate mongoTemplate;
+
+    @Autowired
+    public LogStreamRepository(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public Stream<FoodLog> streamFoodLogs(String userId) {
+        Query query = byUserInDateOrder(userId);
+        query.fields().include("date", "mealType", "foodName", "calories").include(Nutrient.fields());
+        return mongoTemplate.stream(query, FoodLog.class);
+    }
+
+    public Stream<WaterLog> streamWaterLogs(String userId) {
+        Query query = byUserInDateOrder(userId);
+        query.fields().include("date", "glasses");
+        return mongoTemplate.stream(query, WaterLog.class);
+    }
+
+    // walks user_date_idx, no in-memory sort
+    private static Query byUserInDateOrder(String userId) {
+        return Query.query(Criteria.where("userId").is(userId))
+                .with(Sort.by(Sort.Direction.ASC, "date"))
+                .cursorBatchSize(CURSOR_BATCH_SIZE);
+    }
+}
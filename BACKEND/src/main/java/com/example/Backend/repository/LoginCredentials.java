@@ -0,0 +1,17 @@
+package com.example.Backend.repository;
+
+import com.example.Backend.enums.RegistrationSource;
+
+// what a login checks before anything else of the user is needed, fetched as a closed projection
+public interface LoginCredentials {
+
+    String getId();
+
+    String getName();
+
+    String getEmail();
+
+    String getPassword();
+
+    RegistrationSource getRegistrationSource();
+}
@@ -0,0 +1,11 @@
+package com.example.Backend.repository;
+
+// the part of a user the nutrition endpoints read; as a closed projection only these fields are fetched
+public interface NutritionGoals {
+
+    String getId();
+
+    Integer getDailyCalorieGoal();
+
+    Integer getDailyWaterGoal();
+}
@@ -0,0 +1,280 @@
+package com.example.Backend.repository;
+
+import com.example.Backend.model.FoodLog;
+import com.example.Backend.model.Nutrient;
+import com.example.Backend.model.NutrientTotals;
+import com.example.Backend.model.NutritionRollup;
+import com.example.Backend.model.WaterLog;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// deltas are applied before the log writes and missing periods are seeded insert-only, for the same reasons as
+// in DailyTotalsRepository; rebuildUser (nutrition.rollups.rebuild-on-startup) repairs documents that drifted
+@Repository
+public class NutritionRollupRepository {
+
+    public static final List<String> PERIODS = List.of(NutritionRollup.WEEK, NutritionRollup.MONTH);
+
+    private final MongoTemplate mongoTemplate;
+
+    @Autowired
+    public NutritionRollupRepository(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    // the rollups of the given periods in start order; periods without a document are seeded from the logs.
+    // Without days only the period totals are read
+    public List<NutritionRollup> findOrRebuild(String userId, String period, List<LocalDate> starts,
+            boolean includeDays) {
+        Query query = Query.query(Criteria.where("userId").is(userId).and("period").is(period).and("start").in(starts))
+                .maxTimeMsec(ReadLimits.MAX_TIME_MS);
+        if (!includeDays) {
+            query.fields().exclude("days");
+        }
+
+        List<NutritionRollup> rollups = new ArrayList<>(mongoTemplate.find(query, NutritionRollup.class));
+        if (rollups.size() < starts.size()) {
+            Set<LocalDate> found = rollups.stream().map(NutritionRollup::getStart).collect(Collectors.toSet());
+            for (LocalDate start : starts) {
+                if (!found.contains(start)) {
+                    rollups.add(seed(userId, period, start));
+                }
+            }
+            rollups.sort(Comparator.comparing(NutritionRollup::getStart));
+        }
+        return rollups;
+    }
+
+    // adds one write to the week and the month containing date, each period on its own like
+    // DailyTotalsRepository.incrementOrRebuild so a period is never counted twice or missed, and neither when
+    // the write to one of them fails; nutrients is null for water
+    public void applyDelta(String userId, LocalDate date, int calories, NutrientTotals nutrients, int glasses,
+            int foodEntries, int waterEntries) {
+        Update update = deltaUpdate(date, calories, nutrients, glasses, foodEntries, waterEntries);
+        List<Query> applied = new ArrayList<>(PERIODS.size());
+        try {
+            for (String period : PERIODS) {
+                LocalDate start = periodStart(period, date);
+                Query query = byPeriod(userId, period, start);
+                if (mongoTemplate.updateFirst(query, update, NutritionRollup.class).getMatchedCount() == 0) {
+                    // first write in the period (or a period logged before rollups existed)
+                    seedStored(fromLogs(userId, period, start));
+                    mongoTemplate.updateFirst(query, update, NutritionRollup.class);
+                }
+                applied.add(query);
+            }
+        } catch (RuntimeException e) {
+            Update undo = deltaUpdate(date, -calories, nutrients != null ? nutrients.negated() : null, -glasses,
+                    -foodEntries, -waterEntries);
+            for (Query query : applied) {
+                try {
+                    mongoTemplate.updateFirst(query, undo, NutritionRollup.class);
+                } catch (RuntimeException undoFailure) {
+                    e.addSuppressed(undoFailure);
+                }
+            }
+            throw e;
+        }
+    }
+
+    // the rollup of a period, seeded from its logs when it has no document yet; a period without logs is
+    // returned without storing an empty document just because it was viewed
+    public NutritionRollup seed(String userId, String period, LocalDate start) {
+        NutritionRollup rollup = fromLogs(userId, period, start);
+        if (rollup.getDays().isEmpty()) {
+            return rollup;
+        }
+        return seedStored(rollup);
+    }
+
+    private NutritionRollup fromLogs(String userId, String period, LocalDate start) {
+        NutritionRollup rollup = newRollup(userId, period, start);
+        try (Stream<FoodLog> foodLogs = mongoTemplate.stream(foodLogsOf(rollup).maxTimeMsec(ReadLimits.MAX_TIME_MS),
+                FoodLog.class)) {
+            foodLogs.forEach(log -> add(rollup, log.getDate(), log.getCalories(), log, 0, 1, 0));
+        }
+        try (Stream<WaterLog> waterLogs = mongoTemplate.stream(waterLogsOf(rollup).maxTimeMsec(ReadLimits.MAX_TIME_MS),
+                WaterLog.class)) {
+            waterLogs.forEach(log -> add(rollup, log.getDate(), 0, null, log.getGlasses(), 0, 1));
+        }
+        return rollup;
+    }
+
+    // inserts the period unless it exists, a concurrent seed or delta always wins
+    private NutritionRollup seedStored(NutritionRollup rollup) {
+        Query query = byPeriod(rollup.getUserId(), rollup.getPeriod(), rollup.getStart());
+        try {
+            return mongoTemplate.findAndModify(query, seedUpdate(rollup),
+                    FindAndModifyOptions.options().returnNew(true).upsert(true), NutritionRollup.class);
+        } catch (DuplicateKeyException e) {
+            return mongoTemplate.findOne(query, NutritionRollup.class);
+        }
+    }
+
+    // regenerates every rollup of the user in one streaming pass over each log collection, and removes
+    // rollups of periods that no longer have any logs; returns the number of rollups written
+    public int rebuildUser(String userId) {
+        Map<String, NutritionRollup> rollups = new HashMap<>();
+        Query allFoodLogs = Query.query(Criteria.where("userId").is(userId));
+
+        allFoodLogs.fields().include("date", "calories").include(Nutrient.fields());
+        try (Stream<FoodLog> foodLogs = mongoTemplate.stream(allFoodLogs, FoodLog.class)) {
+            foodLogs.forEach(log -> {
+                for (String period : PERIODS) {
+                    add(rollupOf(rollups, userId, period, log.getDate()), log.getDate(), log.getCalories(), log,
+                            0, 1, 0);
+                }
+            });
+        }
+
+        Query allWaterLogs = Query.query(Criteria.where("userId").is(userId));
+        allWaterLogs.fields().include("date", "glasses");
+        try (Stream<WaterLog> waterLogs = mongoTemplate.stream(allWaterLogs, WaterLog.class)) {
+            waterLogs.forEach(log -> {
+                for (String period : PERIODS) {
+                    add(rollupOf(rollups, userId, period, log.getDate()), log.getDate(), 0, null, log.getGlasses(),
+                            0, 1);
+                }
+            });
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, NutritionRollup.class);
+        int operations = 0;
+        for (NutritionRollup rollup : rollups.values()) {
+            bulk.upsert(byPeriod(userId, rollup.getPeriod(), rollup.getStart()), rollupUpdate(rollup));
+            operations++;
+        }
+
+        Query existing = Query.query(Criteria.where("userId").is(userId));
+        existing.fields().include("period", "start");
+        for (NutritionRollup stale : mongoTemplate.find(existing, NutritionRollup.class)) {
+            if (!rollups.containsKey(stale.getPeriod() + "|" + stale.getStart())) {
+                bulk.remove(Query.query(Criteria.where("_id").is(stale.getId())));
+                operations++;
+            }
+        }
+
+        if (operations > 0) {
+            bulk.execute();
+        }
+        return rollups.size();
+    }
+
+    public static LocalDate periodStart(String period, LocalDate date) {
+        return NutritionRollup.WEEK.equals(period)
+                ? date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY))
+                : date.withDayOfMonth(1);
+    }
+
+    public static LocalDate periodEnd(String period, LocalDate start) {
+        return NutritionRollup.WEEK.equals(period) ? start.plusDays(6) : start.plusMonths(1).minusDays(1);
+    }
+
+    public static NutritionRollup newRollup(String userId, String period, LocalDate start) {
+        NutritionRollup rollup = new NutritionRollup();
+        rollup.setUserId(userId);
+        rollup.setPeriod(period);
+        rollup.setStart(start);
+        rollup.setEnd(periodEnd(period, start));
+        return rollup;
+    }
+
+    // the in-memory counterpart of applyDelta's $inc, used while rebuilding; foodLog is null for water
+    public static void add(NutritionRollup rollup, LocalDate date, int calories, FoodLog foodLog, int glasses,
+            int foodEntries, int waterEntries) {
+        NutritionRollup.Day day = rollup.getDays().computeIfAbsent(date.toString(), key -> new NutritionRollup.Day());
+        day.setCalories(day.getCalories() + calories);
+        day.setGlasses(day.getGlasses() + glasses);
+        day.setFoodEntries(day.getFoodEntries() + foodEntries);
+        day.setWaterEntries(day.getWaterEntries() + waterEntries);
+        rollup.setCalories(rollup.getCalories() + calories);
+        rollup.setGlasses(rollup.getGlasses() + glasses);
+        if (foodLog != null) {
+            day.getNutrients().add(foodLog);
+            rollup.getNutrients().add(foodLog);
+        }
+    }
+
+    private static NutritionRollup rollupOf(Map<String, NutritionRollup> rollups, String userId, String period,
+            LocalDate date) {
+        LocalDate start = periodStart(period, date);
+        return rollups.computeIfAbsent(period + "|" + start, key -> newRollup(userId, period, start));
+    }
+
+    // the fields of the period's food logs that go into its rollup
+    public static Query foodLogsOf(NutritionRollup rollup) {
+        Query query = logsOf(rollup, "calories");
+        query.fields().include(Nutrient.fields());
+        return query;
+    }
+
+    public static Query waterLogsOf(NutritionRollup rollup) {
+        return logsOf(rollup, "glasses");
+    }
+
+    private static Query logsOf(NutritionRollup rollup, String field) {
+        Query query = Query.query(Criteria.where("userId").is(rollup.getUserId())
+                .and("date").gte(rollup.getStart()).lte(rollup.getEnd()));
+        query.fields().include("date", field);
+        return query;
+    }
+
+    public static Query byPeriod(String userId, String period, LocalDate start) {
+        return Query.query(Criteria.where("userId").is(userId).and("period").is(period).and("start").is(start));
+    }
+
+    // the $inc of one write on its period and its day within
+    public static Update deltaUpdate(LocalDate date, int calories, NutrientTotals nutrients, int glasses,
+            int foodEntries, int waterEntries) {
+        String day = "days." + date;
+        Update update = new Update()
+                .inc("calories", calories)
+                .inc("glasses", glasses)
+                .inc(day + ".calories", calories)
+                .inc(day + ".glasses", glasses)
+                .inc(day + ".foodEntries", foodEntries)
+                .inc(day + ".waterEntries", waterEntries);
+        DailyTotalsRepository.incNutrients(update, "nutrients", nutrients);
+        DailyTotalsRepository.incNutrients(update, day + ".nutrients", nutrients);
+        return update;
+    }
+
+    // rollupUpdate as $setOnInsert
+    public static Update seedUpdate(NutritionRollup rollup) {
+        return new Update()
+                .setOnInsert("end", rollup.getEnd())
+                .setOnInsert("calories", rollup.getCalories())
+                .setOnInsert("glasses", rollup.getGlasses())
+                .setOnInsert("nutrients", rollup.getNutrients())
+                .setOnInsert("days", rollup.getDays());
+    }
+
+    // $set of every field, computed from the complete set of the period's logs
+    private static Update rollupUpdate(NutritionRollup rollup) {
+        return new Update()
+                .set("end", rollup.getEnd())
+                .set("calories", rollup.getCalories())
+                .set("glasses", rollup.getGlasses())
+                .set("nutrients", rollup.getNutrients())
+                .set("days", rollup.getDays());
+    }
+}
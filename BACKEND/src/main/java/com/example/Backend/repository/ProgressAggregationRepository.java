@@ -0,0 +1,81 @@
+package com.example.Backend.repository;
+
+import com.example.Backend.model.FoodLog;
+import com.example.Backend.model.WaterLog;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+// per-day sums computed by MongoDB ($match on the user_date_idx, then $group by date),
+// so only one small document per day crosses the wire instead of every log entry
+@Repository
+public class ProgressAggregationRepository {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Autowired
+    public ProgressAggregationRepository(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public Map<LocalDate, Integer> sumCaloriesByDate(String userId, LocalDate from, LocalDate to) {
+        return sumByDate(FoodLog.class, "calories", userId, from, to);
+    }
+
+    public Map<LocalDate, Integer> sumGlassesByDate(String userId, LocalDate from, LocalDate to) {
+        return sumByDate(WaterLog.class, "glasses", userId, from, to);
+    }
+
+    // from and to are both inclusive
+    public static TypedAggregation<?> sumByDateAggregation(Class<?> document, String field, String userId,
+            LocalDate from, LocalDate to) {
+        return Aggregation.newAggregation(document,
+                Aggregation.match(Criteria.where("userId").is(userId).and("date").gte(from).lte(to)),
+                Aggregation.group("date").sum(field).as("total"))
+                .withOptions(AggregationOptions.builder().maxTime(Duration.ofMillis(ReadLimits.MAX_TIME_MS)).build());
+    }
+
+    private Map<LocalDate, Integer> sumByDate(Class<?> document, String field, String userId, LocalDate from,
+            LocalDate to) {
+        Map<LocalDate, Integer> totals = new HashMap<>();
+        for (DailySum sum : mongoTemplate.aggregate(sumByDateAggregation(document, field, userId, from, to),
+                DailySum.class)) {
+            totals.put(sum.getDate(), sum.getTotal());
+        }
+        return totals;
+    }
+
+    public static class DailySum {
+
+        @Id
+        private LocalDate date;
+
+        private int total;
+
+        public LocalDate getDate() {
+            return date;
+        }
+
+        public void setDate(LocalDate date) {
+            this.date = date;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        public void setTotal(int total) {
+            this.total = total;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.Backend.repository;
+
+// server-side time limit of the reads a request runs side by side on ParallelQueryExecutor. MongoDB stops such a
+// read after this long, also when the request stopped waiting for it earlier (nutrition.query-executor.timeout-ms)
+public final class ReadLimits {
+
+    public static final int MAX_TIME_MS = 5000;
+
+    private ReadLimits() {
+    }
+}
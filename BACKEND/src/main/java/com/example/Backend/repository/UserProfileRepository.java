@@ -0,0 +1,48 @@
+package com.example.Backend.repository;
+
+import com.example.Backend.dto.UserProfileDTO;
+import com.example.Backend.model.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+// public profiles of many users in one $in query, reading only the profile fields (no password or goals) and
+// at most maxSkills skills of each; profile edits $set only the edited fields
+@Repository
+public class UserProfileRepository {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Autowired
+    public UserProfileRepository(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    // in no particular order, unknown ids are left out
+    public List<UserProfileDTO> findProfiles(Collection<String> userIds, int maxSkills) {
+        Query query = Query.query(Criteria.where("_id").in(userIds));
+        query.fields()
+                .include("name", "email", "profileImage", "bio", "location", "followersCount", "followingCount",
+                        "registrationSource")
+                .slice("skills", maxSkills);
+        return mongoTemplate.query(User.class)
+                .as(UserProfileDTO.class)
+                .matching(query)
+                .all();
+    }
+
+    // never a whole document: the follow counts are kept with $inc by FollowRepository and a save of a user read
+    // earlier would write stale counts back. Returns the user as it is after the update, empty if there is none
+    public Optional<User> update(String userId, Update update) {
+        return Optional.ofNullable(mongoTemplate.findAndModify(Query.query(Criteria.where("_id").is(userId)), update,
+                FindAndModifyOptions.options().returnNew(true), User.class));
+    }
+}
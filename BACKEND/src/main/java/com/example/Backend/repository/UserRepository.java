@@ -1,7 +1,10 @@
 package com.example.Backend.repository;
 
 import com.example.Backend.model.User;
+import org.springframework.data.mongodb.repository.Meta;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.Update;
 import java.util.Optional;
 
 public interface UserRepository extends MongoRepository<User, String> {
@@ -10,4 +13,15 @@ public interface UserRepository extends MongoRepository<User, String> {
     Optional<User> findById(String id);
 
     boolean existsByEmail(String email);
-}
\ No newline at end of file
+
+    // projected lookups for hot paths, only the fields of the returned interface are read from the document
+    @Meta(maxExecutionTimeMs = ReadLimits.MAX_TIME_MS)
+    Optional<NutritionGoals> findGoalsById(String id);
+
+    Optional<LoginCredentials> findCredentialsByEmail(String email);
+
+    // replaces the hash only if it is still the one that was checked, a password change in between wins
+    @Query("{ '_id': ?0, 'password': ?1 }")
+    @Update("{ '$set': { 'password': ?2 } }")
+    long updatePassword(String id, String currentHash, String newHash);
+}
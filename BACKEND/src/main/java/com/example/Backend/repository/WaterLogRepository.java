@@ -1,13 +1,20 @@
 package com.example.Backend.repository;
 
+import com.example.Backend.dto.WaterLogEntryDTO;
 import com.example.Backend.model.WaterLog;
+import org.springframework.data.mongodb.repository.Meta;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
 import java.time.LocalDate;
 import java.util.List;
 
 public interface WaterLogRepository extends MongoRepository<WaterLog, String> {
+    @Meta(maxExecutionTimeMs = ReadLimits.MAX_TIME_MS)
     List<WaterLog> findByUserIdAndDate(String userId, LocalDate date);
 
+    // only the fields of WaterLogEntryDTO are read
+    @Meta(maxExecutionTimeMs = ReadLimits.MAX_TIME_MS)
+    List<WaterLogEntryDTO> findEntriesByUserIdAndDate(String userId, LocalDate date);
+
     List<WaterLog> findByUserIdAndDateBetween(String userId, LocalDate startDate, LocalDate endDate);
 }
\ No newline at end of file
@@ -0,0 +1,87 @@
+package com.example.Backend.repository.reactive;
+
+import com.example.Backend.model.DailyTotals;
+import com.example.Backend.model.FoodLog;
+import com.example.Backend.model.NutrientTotals;
+import com.example.Backend.model.WaterLog;
+import com.example.Backend.repository.DailyTotalsRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// reactive counterpart of DailyTotalsRepository, maintaining the same daily_totals documents the same way:
+// deltas come before the log writes and missing days are seeded insert-only
+@Repository
+@ConditionalOnProperty(name = "nutrition.reactive.enabled", havingValue = "true")
+public class ReactiveDailyTotalsRepository {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final ReactiveFoodLogRepository foodLogRepository;
+    private final ReactiveWaterLogRepository waterLogRepository;
+
+    @Autowired
+    public ReactiveDailyTotalsRepository(ReactiveMongoTemplate mongoTemplate,
+            ReactiveFoodLogRepository foodLogRepository, ReactiveWaterLogRepository waterLogRepository) {
+        this.mongoTemplate = mongoTemplate;
+        this.foodLogRepository = foodLogRepository;
+        this.waterLogRepository = waterLogRepository;
+    }
+
+    public Mono<DailyTotals> findOrRebuild(String userId, LocalDate date) {
+        return mongoTemplate.findOne(DailyTotalsRepository.byUserAndDate(userId, date), DailyTotals.class)
+                .switchIfEmpty(Mono.defer(() -> Mono.zip(
+                        foodLogRepository.findByUserIdAndDate(userId, date).collectList(),
+                        waterLogRepository.findByUserIdAndDate(userId, date).collectList())
+                        .flatMap(logs -> {
+                            if (logs.getT1().isEmpty() && logs.getT2().isEmpty()) {
+                                DailyTotals empty = new DailyTotals();
+                                empty.setUserId(userId);
+                                empty.setDate(date);
+                                return Mono.just(empty);
+                            }
+                            return seed(userId, date, logs.getT1(), logs.getT2());
+                        })));
+    }
+
+    public Mono<DailyTotals> applyFoodDelta(String userId, LocalDate date, String mealType, int calories,
+            NutrientTotals nutrients, int entries) {
+        Update update = new Update()
+                .inc("calories", calories)
+                .inc("foodEntries", entries)
+                .inc("mealCalories." + DailyTotalsRepository.mealKey(mealType), calories);
+        return incrementOrRebuild(userId, date, DailyTotalsRepository.incNutrients(update, "nutrients", nutrients));
+    }
+
+    public Mono<DailyTotals> applyWaterDelta(String userId, LocalDate date, int glasses, int entries) {
+        Update update = new Update()
+                .inc("glasses", glasses)
+                .inc("waterEntries", entries);
+        return incrementOrRebuild(userId, date, update);
+    }
+
+    private Mono<DailyTotals> incrementOrRebuild(String userId, LocalDate date, Update update) {
+        Mono<DailyTotals> increment = mongoTemplate.findAndModify(DailyTotalsRepository.byUserAndDate(userId, date),
+                update, FindAndModifyOptions.options().returnNew(true), DailyTotals.class);
+        return increment.switchIfEmpty(Mono.defer(() -> Mono.zip(
+                        foodLogRepository.findByUserIdAndDate(userId, date).collectList(),
+                        waterLogRepository.findByUserIdAndDate(userId, date).collectList())
+                .flatMap(logs -> seed(userId, date, logs.getT1(), logs.getT2()))
+                .then(increment)));
+    }
+
+    private Mono<DailyTotals> seed(String userId, LocalDate date, List<FoodLog> foodLogs, List<WaterLog> waterLogs) {
+        return mongoTemplate.findAndModify(DailyTotalsRepository.byUserAndDate(userId, date),
+                DailyTotalsRepository.seedUpdate(foodLogs, waterLogs),
+                FindAndModifyOptions.options().returnNew(true).upsert(true), DailyTotals.class)
+                .onErrorResume(DuplicateKeyException.class, e -> mongoTemplate.findOne(
+                        DailyTotalsRepository.byUserAndDate(userId, date), DailyTotals.class));
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.Backend.repository.reactive;
+
+import com.example.Backend.dto.FoodLogEntryDTO;
+import com.example.Backend.model.FoodLog;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+public interface ReactiveFoodLogRepository extends ReactiveMongoRepository<FoodLog, String> {
+    Flux<FoodLog> findByUserIdAndDate(String userId, LocalDate date);
+
+    // only the fields of FoodLogEntryDTO are read
+    Flux<FoodLogEntryDTO> findEntriesByUserIdAndDate(String userId, LocalDate date);
+
+    Mono<Long> deleteByIdAndUserId(String id, String userId);
+}
@@ -0,0 +1,116 @@
+package com.example.Backend.repository.reactive;
+
+import com.example.Backend.model.FoodLog;
+import com.example.Backend.model.NutrientTotals;
+import com.example.Backend.model.NutritionRollup;
+import com.example.Backend.model.WaterLog;
+import com.example.Backend.repository.NutritionRollupRepository;
+import com.mongodb.client.result.UpdateResult;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+// reactive counterpart of NutritionRollupRepository, reading and applying deltas to the same rollups the
+// same way: before the log writes, with missing periods seeded insert-only
+@Repository
+@ConditionalOnProperty(name = "nutrition.reactive.enabled", havingValue = "true")
+public class ReactiveNutritionRollupRepository {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Autowired
+    public ReactiveNutritionRollupRepository(ReactiveMongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    // as NutritionRollupRepository.findOrRebuild with the days included
+    public Mono<List<NutritionRollup>> findOrRebuild(String userId, String period, List<LocalDate> starts) {
+        Query query = Query.query(Criteria.where("userId").is(userId).and("period").is(period).and("start").in(starts));
+        return mongoTemplate.find(query, NutritionRollup.class).collectList()
+                .flatMap(found -> {
+                    Set<LocalDate> present = found.stream().map(NutritionRollup::getStart).collect(Collectors.toSet());
+                    return Flux.fromIterable(starts)
+                            .filter(start -> !present.contains(start))
+                            .concatMap(start -> fromLogs(userId, period, start)
+                                    // a period without logs is not stored just because it was viewed
+                                    .flatMap(rollup -> rollup.getDays().isEmpty()
+                                            ? Mono.just(rollup)
+                                            : seedStored(rollup)))
+                            .collectList()
+                            .map(seeded -> {
+                                List<NutritionRollup> rollups = new ArrayList<>(found);
+                                rollups.addAll(seeded);
+                                rollups.sort(Comparator.comparing(NutritionRollup::getStart));
+                                return rollups;
+                            });
+                });
+    }
+
+    // adds one write to the week and the month containing date, each period on its own as in
+    // NutritionRollupRepository.applyDelta, and takes it back out of both when one fails; nutrients is null for
+    // water
+    public Mono<Void> applyDelta(String userId, LocalDate date, int calories, NutrientTotals nutrients, int glasses,
+            int foodEntries, int waterEntries) {
+        Update update = NutritionRollupRepository.deltaUpdate(date, calories, nutrients, glasses, foodEntries,
+                waterEntries);
+        List<Query> applied = new CopyOnWriteArrayList<>();
+        return Flux.fromIterable(NutritionRollupRepository.PERIODS)
+                .concatMap(period -> {
+                    LocalDate start = NutritionRollupRepository.periodStart(period, date);
+                    Query query = NutritionRollupRepository.byPeriod(userId, period, start);
+                    Mono<Long> apply = Mono.defer(() -> mongoTemplate.updateFirst(query, update,
+                            NutritionRollup.class)).map(UpdateResult::getMatchedCount);
+                    // first write in the period
+                    return apply.flatMap(matched -> matched > 0
+                                    ? Mono.just(matched)
+                                    : fromLogs(userId, period, start).flatMap(this::seedStored).then(apply))
+                            .doOnSuccess(matched -> applied.add(query));
+                })
+                .then()
+                .onErrorResume(e -> {
+                    Update undo = NutritionRollupRepository.deltaUpdate(date, -calories,
+                            nutrients != null ? nutrients.negated() : null, -glasses, -foodEntries, -waterEntries);
+                    return Flux.fromIterable(applied)
+                            .concatMap(query -> mongoTemplate.updateFirst(query, undo, NutritionRollup.class)
+                                    .onErrorResume(undoFailure -> {
+                                        e.addSuppressed(undoFailure);
+                                        return Mono.empty();
+                                    }))
+                            .then(Mono.error(e));
+                });
+    }
+
+    // the period summed from its logs
+    private Mono<NutritionRollup> fromLogs(String userId, String period, LocalDate start) {
+        NutritionRollup rollup = NutritionRollupRepository.newRollup(userId, period, start);
+        return mongoTemplate.find(NutritionRollupRepository.foodLogsOf(rollup), FoodLog.class)
+                .doOnNext(log -> NutritionRollupRepository.add(rollup, log.getDate(), log.getCalories(), log, 0, 1, 0))
+                .thenMany(mongoTemplate.find(NutritionRollupRepository.waterLogsOf(rollup), WaterLog.class))
+                .doOnNext(log -> NutritionRollupRepository.add(rollup, log.getDate(), 0, null, log.getGlasses(), 0, 1))
+                .then(Mono.just(rollup));
+    }
+
+    // inserts the period unless it exists, a concurrent seed or delta always wins
+    private Mono<NutritionRollup> seedStored(NutritionRollup rollup) {
+        Query query = NutritionRollupRepository.byPeriod(rollup.getUserId(), rollup.getPeriod(), rollup.getStart());
+        return mongoTemplate.findAndModify(query, NutritionRollupRepository.seedUpdate(rollup),
+                        FindAndModifyOptions.options().returnNew(true).upsert(true), NutritionRollup.class)
+                .onErrorResume(DuplicateKeyException.class, e -> mongoTemplate.findOne(query, NutritionRollup.class));
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.Backend.repository.reactive;
+
+import com.example.Backend.model.User;
+import com.example.Backend.repository.NutritionGoals;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveUserRepository extends ReactiveMongoRepository<User, String> {
+    // as UserRepository.findGoalsById, only the goal fields are read
+    Mono<NutritionGoals> findGoalsById(String id);
+}
@@ -0,0 +1,15 @@
+package com.example.Backend.repository.reactive;
+
+import com.example.Backend.dto.WaterLogEntryDTO;
+import com.example.Backend.model.WaterLog;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+
+public interface ReactiveWaterLogRepository extends ReactiveMongoRepository<WaterLog, String> {
+    Flux<WaterLog> findByUserIdAndDate(String userId, LocalDate date);
+
+    // only the fields of WaterLogEntryDTO are read
+    Flux<WaterLogEntryDTO> findEntriesByUserIdAndDate(String userId, LocalDate date);
+}
@@ -3,9 +3,9 @@ package com.example.Backend.service;
 import com.example.Backend.dto.LoginRequest;
 import com.example.Backend.dto.RegisterRequest;
 import com.example.Backend.model.User;
+import com.example.Backend.repository.LoginCredentials;
 import com.example.Backend.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.util.Optional;
@@ -17,27 +17,28 @@ public class AuthService {
     private UserRepository userRepository;
 
     @Autowired
-    private BCryptPasswordEncoder passwordEncoder;
+    private PasswordHasher passwordHasher;
 
     public String register(RegisterRequest request) {
-        if (userRepository.findByEmail(request.getEmail()).isPresent()) {
+        if (userRepository.existsByEmail(request.getEmail())) {
             return "Email already in use";
         }
         User user = new User();
         user.setName(request.getName());
         user.setEmail(request.getEmail());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
+        user.setPassword(passwordHasher.encode(request.getPassword()));
         userRepository.save(user);
         return "User registered successfully";
     }
 
     public Optional<User> login(LoginRequest request) {
-        Optional<User> user = userRepository.findByEmail(request.getEmail());
-        if (user.isPresent() && passwordEncoder.matches(request.getPassword(), user.get().getPassword())) {
+        Optional<LoginCredentials> credentials = userRepository.findCredentialsByEmail(request.getEmail());
+        if (credentials.isPresent()
+                && passwordHasher.matches(request.getPassword(), credentials.get().getPassword())) {
             User existingUser = new User();
-            existingUser.setId(user.get().getId());
-            existingUser.setName(user.get().getName());
-            existingUser.setEmail(user.get().getEmail());
+            existingUser.setId(credentials.get().getId());
+            existingUser.setName(credentials.get().getName());
+            existingUser.setEmail(credentials.get().getEmail());
             return Optional.of(existingUser);
         }
         return Optional.empty();
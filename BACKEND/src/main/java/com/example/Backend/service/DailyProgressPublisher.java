@@ -0,0 +1,197 @@
+package com.example.Backend.service;
+
+import com.example.Backend.dto.DailyProgressEvent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// open progress streams by user; writes publish the change of one day's totals to the streams watching that
+// day. Connections are held by the servlet container, no thread waits on them. Events are queued per stream
+// and written by a small sender pool, so a write request never blocks on a client's socket; a stream whose
+// queue is full is closed and its client reconnects to a fresh snapshot.
+@Component
+public class DailyProgressPublisher implements MeterBinder {
+
+    private final Map<String, List<Subscription>> subscriptions = new ConcurrentHashMap<>();
+    private final AtomicInteger openStreams = new AtomicInteger();
+    private final AtomicInteger droppedStreams = new AtomicInteger();
+    private final long timeoutMillis;
+    private final int maxPerUser;
+    private final int maxPendingEvents;
+    // at most one drain task per stream is queued or running, so the queue is bounded by the open streams
+    private final ThreadPoolExecutor sender;
+
+    @Autowired
+    public DailyProgressPublisher(@Value("${nutrition.progress-stream.timeout-ms:1800000}") long timeoutMillis,
+            @Value("${nutrition.progress-stream.max-per-user:5}") int maxPerUser,
+            @Value("${nutrition.progress-stream.max-pending-events:32}") int maxPendingEvents,
+            @Value("${nutrition.progress-stream.sender-threads:4}") int senderThreads,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.timeoutMillis = timeoutMillis;
+        this.maxPerUser = maxPerUser;
+        this.maxPendingEvents = maxPendingEvents;
+        ThreadFactory threadFactory = virtualThreads
+                ? Thread.ofVirtual().name("progress-stream-", 0).factory()
+                : Thread.ofPlatform().name("progress-stream-", 0).daemon(true).factory();
+        this.sender = new ThreadPoolExecutor(senderThreads, senderThreads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), threadFactory);
+        this.sender.allowCoreThreadTimeOut(true);
+    }
+
+    // registers a stream and sends the current totals as its first event
+    public SseEmitter subscribe(String userId, LocalDate date, Object snapshot) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscription subscription = new Subscription(date, emitter, maxPendingEvents);
+
+        emitter.onCompletion(() -> remove(userId, subscription));
+        emitter.onTimeout(() -> remove(userId, subscription));
+        emitter.onError(e -> remove(userId, subscription));
+
+        List<Subscription> evicted = new ArrayList<>();
+        subscriptions.compute(userId, (id, userSubscriptions) -> {
+            if (userSubscriptions == null) {
+                userSubscriptions = new CopyOnWriteArrayList<>();
+            }
+            userSubscriptions.add(subscription);
+            openStreams.incrementAndGet();
+            // a user with many tabs open keeps the newest streams
+            while (userSubscriptions.size() > maxPerUser) {
+                evicted.add(userSubscriptions.remove(0));
+                openStreams.decrementAndGet();
+            }
+            return userSubscriptions;
+        });
+        evicted.forEach(oldest -> oldest.emitter.complete());
+
+        send(userId, subscription, SseEmitter.event().name("progress").data(snapshot));
+        return emitter;
+    }
+
+    public void publish(String userId, DailyProgressEvent event) {
+        List<Subscription> userSubscriptions = subscriptions.get(userId);
+        if (userSubscriptions == null) {
+            return;
+        }
+        for (Subscription subscription : userSubscriptions) {
+            if (subscription.date.equals(event.getDate())) {
+                send(userId, subscription, SseEmitter.event().name("delta").data(event));
+            }
+        }
+    }
+
+    // comment lines keep idle connections from being closed by proxies and detect clients that went away
+    @Scheduled(fixedDelayString = "${nutrition.progress-stream.heartbeat-ms:30000}")
+    public void heartbeat() {
+        subscriptions.forEach((userId, userSubscriptions) -> {
+            for (Subscription subscription : userSubscriptions) {
+                send(userId, subscription, SseEmitter.event().comment("heartbeat"));
+            }
+        });
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("nutrition.progress.streams", openStreams, AtomicInteger::get)
+                .description("Open daily progress streams")
+                .register(registry);
+        FunctionCounter.builder("nutrition.progress.streams.dropped", droppedStreams, AtomicInteger::get)
+                .description("Progress streams closed because the client fell behind")
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdown();
+    }
+
+    // queues the event and makes sure a sender drains the stream
+    private void send(String userId, Subscription subscription, SseEmitter.SseEventBuilder event) {
+        if (!subscription.pending.offer(event)) {
+            droppedStreams.incrementAndGet();
+            close(userId, subscription, null);
+            return;
+        }
+        if (subscription.draining.compareAndSet(false, true)) {
+            try {
+                sender.execute(() -> drain(userId, subscription));
+            } catch (RejectedExecutionException e) {
+                // shutting down
+                close(userId, subscription, null);
+            }
+        }
+    }
+
+    // writes the stream's events in order, on one sender thread at a time
+    private void drain(String userId, Subscription subscription) {
+        do {
+            SseEmitter.SseEventBuilder event;
+            while ((event = subscription.pending.poll()) != null) {
+                try {
+                    subscription.emitter.send(event);
+                } catch (IOException | IllegalStateException e) {
+                    // draining stays set, nothing is sent to this stream any more
+                    close(userId, subscription, e);
+                    return;
+                }
+            }
+            subscription.draining.set(false);
+        } while (!subscription.pending.isEmpty() && subscription.draining.compareAndSet(false, true));
+    }
+
+    private void close(String userId, Subscription subscription, Throwable failure) {
+        remove(userId, subscription);
+        subscription.pending.clear();
+        if (failure != null) {
+            subscription.emitter.completeWithError(failure);
+        } else {
+            subscription.emitter.complete();
+        }
+    }
+
+    private void remove(String userId, Subscription subscription) {
+        subscriptions.computeIfPresent(userId, (id, userSubscriptions) -> {
+            if (userSubscriptions.remove(subscription)) {
+                openStreams.decrementAndGet();
+            }
+            return userSubscriptions.isEmpty() ? null : userSubscriptions;
+        });
+    }
+
+    private static final class Subscription {
+
+        private final LocalDate date;
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> pending;
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscription(LocalDate date, SseEmitter emitter, int maxPendingEvents) {
+            this.date = date;
+            this.emitter = emitter;
+            this.pending = new ArrayBlockingQueue<>(maxPendingEvents);
+        }
+    }
+}
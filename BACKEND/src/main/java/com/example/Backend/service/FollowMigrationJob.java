@@ -0,0 +1,102 @@
+package com.example.Backend.service;
+
+import com.example.Backend.model.Follow;
+import com.example.Backend.model.User;
+import com.example.Backend.repository.FollowRepository;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+// moves the follower lists that used to be embedded in user documents (followingUsers/followedUsers) into the
+// follows collection and recounts the affected users; users without the old fields are not touched, so after
+// the first run this only costs one query. A user's lists are only removed once the user and everyone on them
+// are recounted, so a run that stops halfway is finished by the next one. Runs once all beans exist but before
+// the web server starts: User no longer maps the lists, so the counts are only right and the lists only safe
+// from being dropped by a save once this has run
+@Component
+@ConditionalOnProperty(name = "nutrition.follows.migrate-on-startup", havingValue = "true", matchIfMissing = true)
+public class FollowMigrationJob implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(FollowMigrationJob.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final FollowRepository followRepository;
+
+    @Autowired
+    public FollowMigrationJob(MongoTemplate mongoTemplate, FollowRepository followRepository) {
+        this.mongoTemplate = mongoTemplate;
+        this.followRepository = followRepository;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        migrate();
+    }
+
+    public void migrate() {
+        Query legacy = Query.query(new Criteria().orOperator(
+                Criteria.where("followingUsers").exists(true), Criteria.where("followedUsers").exists(true)));
+        legacy.fields().include("_id", "followingUsers", "followedUsers");
+
+        AtomicInteger recounted = new AtomicInteger();
+        AtomicInteger users = new AtomicInteger();
+        String collection = mongoTemplate.getCollectionName(User.class);
+        try (Stream<Document> legacyUsers = mongoTemplate.stream(legacy, Document.class, collection)) {
+            legacyUsers.forEach(user -> {
+                String userId = user.get("_id").toString();
+                Set<String> touched = new HashSet<>();
+                BulkOperations edges = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Follow.class);
+                int count = 0;
+                // both sides of every edge were stored, upserting either one is enough and repeats are harmless
+                for (String followeeId : user.getList("followingUsers", String.class, List.of())) {
+                    edges.upsert(edgeQuery(userId, followeeId), edgeUpdate());
+                    touched.add(followeeId);
+                    count++;
+                }
+                for (String followerId : user.getList("followedUsers", String.class, List.of())) {
+                    edges.upsert(edgeQuery(followerId, userId), edgeUpdate());
+                    touched.add(followerId);
+                    count++;
+                }
+                if (count > 0) {
+                    edges.execute();
+                }
+                touched.add(userId);
+                touched.forEach(followRepository::recount);
+                recounted.addAndGet(touched.size());
+                mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(user.get("_id"))),
+                        new Update().unset("followingUsers").unset("followedUsers"), collection);
+                users.incrementAndGet();
+            });
+        }
+
+        if (users.get() > 0) {
+            log.info("Moved the embedded follower lists of {} users into follows, {} recounts", users.get(),
+                    recounted.get());
+        }
+    }
+
+    private static Query edgeQuery(String followerId, String followeeId) {
+        return Query.query(Criteria.where("followerId").is(followerId).and("followeeId").is(followeeId));
+    }
+
+    private static Update edgeUpdate() {
+        return new Update().setOnInsert("createdAt", Instant.now());
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.Backend.service;
+
+import com.example.Backend.dto.FoodDTO;
+import com.example.Backend.dto.FoodSuggestionDTO;
+import com.example.Backend.model.Food;
+import com.example.Backend.repository.FoodRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+
+// food catalog search. The catalog is held in memory as an immutable FoodPrefixIndex that is rebuilt
+// whenever a food is added here and periodically (to pick up foods added by other instances). The first load
+// runs in the background after startup, or on the first search when nutrition.foods.load-on-startup is off;
+// until then, and whenever a reload fails, searches use the index that is already there
+@Service
+public class FoodCatalogService implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(FoodCatalogService.class);
+    private static final int MAX_SEARCH_RESULTS = 50;
+
+    private final FoodRepository foodRepository;
+    private final FrequentFoodsCache frequentFoodsCache;
+    private final TaskExecutor taskExecutor;
+    private final boolean loadOnStartup;
+
+    private volatile FoodPrefixIndex index = FoodPrefixIndex.empty();
+    private volatile boolean loaded;
+
+    @Autowired
+    public FoodCatalogService(FoodRepository foodRepository, FrequentFoodsCache frequentFoodsCache,
+            @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+            @Value("${nutrition.foods.load-on-startup:true}") boolean loadOnStartup) {
+        this.foodRepository = foodRepository;
+        this.frequentFoodsCache = frequentFoodsCache;
+        this.taskExecutor = taskExecutor;
+        this.loadOnStartup = loadOnStartup;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (loadOnStartup) {
+            taskExecutor.execute(this::refresh);
+        }
+    }
+
+    // synchronized so an older snapshot can never replace a newer one
+    @Scheduled(fixedDelayString = "${nutrition.foods.refresh-ms:300000}",
+            initialDelayString = "${nutrition.foods.refresh-ms:300000}")
+    public synchronized void refresh() {
+        long started = System.currentTimeMillis();
+        try {
+            FoodPrefixIndex rebuilt = FoodPrefixIndex.build(foodRepository.findAll());
+            index = rebuilt;
+            loaded = true;
+            log.debug("Indexed {} foods in {} ms", rebuilt.size(), System.currentTimeMillis() - started);
+        } catch (DataAccessException e) {
+            log.warn("Could not load the food catalog, keeping the previous index of {} foods", index.size(), e);
+        }
+    }
+
+    public ResponseEntity<?> addFood(FoodDTO foodDTO) {
+        Food food = new Food();
+        food.setName(foodDTO.getName().trim());
+        food.setServing(foodDTO.getServing() != null ? foodDTO.getServing().trim() : "");
+        food.setCalories(foodDTO.getCalories());
+
+        try {
+            food = foodRepository.save(food);
+        } catch (DuplicateKeyException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Food with this name and serving already exists");
+        }
+        refresh();
+        return ResponseEntity.status(HttpStatus.CREATED).body(food);
+    }
+
+    // userId is optional and only given for the authenticated user, without it results are ranked by name only;
+    // with it the counts come from the user's frequent foods, so foods outside the top few are ranked by name
+    // as well
+    public ResponseEntity<?> search(String query, String userId, int limit) {
+        if (query == null || FoodPrefixIndex.normalize(query).isEmpty()) {
+            return ResponseEntity.badRequest().body("Search query is required.");
+        }
+        if (limit < 1 || limit > MAX_SEARCH_RESULTS) {
+            return ResponseEntity.badRequest().body("Limit must be between 1 and " + MAX_SEARCH_RESULTS + ".");
+        }
+
+        if (!loadOnStartup && !loaded) {
+            loadOnce();
+        }
+        Map<String, Integer> timesLogged = userId != null ? frequentFoodsCache.timesLogged(userId) : Map.of();
+        List<FoodSuggestionDTO> suggestions = index.search(query, timesLogged, limit);
+        return ResponseEntity.ok(suggestions);
+    }
+
+    private synchronized void loadOnce() {
+        if (!loaded) {
+            refresh();
+        }
+    }
+
+}
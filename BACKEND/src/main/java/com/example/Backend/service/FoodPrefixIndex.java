@@ -0,0 +1,160 @@
+package com.example.Backend.service;
+
+import com.example.Backend.dto.FoodSuggestionDTO;
+import com.example.Backend.model.Food;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// immutable prefix index over the food catalog. Every word of a name starts a key ("rice curry", "curry"),
+// the keys are kept in one sorted array and a prefix is answered by a binary search for its first key
+// followed by a scan over the adjacent keys sharing it. Never modified after build, so it is read without
+// locking and replaced as a whole when the catalog changes
+public final class FoodPrefixIndex {
+
+    // upper bound of distinct foods considered for ranking, keeps one-letter queries cheap on large catalogs
+    static final int MAX_CANDIDATES = 1000;
+
+    private static final FoodPrefixIndex EMPTY = new FoodPrefixIndex(new Food[0], new String[0], new String[0],
+            new int[0]);
+
+    private final Food[] foods;
+    private final String[] names; // normalized name of each food
+    private final String[] keys;
+    private final int[] keyFoods; // index into foods for each key
+
+    private FoodPrefixIndex(Food[] foods, String[] names, String[] keys, int[] keyFoods) {
+        this.foods = foods;
+        this.names = names;
+        this.keys = keys;
+        this.keyFoods = keyFoods;
+    }
+
+    public static FoodPrefixIndex empty() {
+        return EMPTY;
+    }
+
+    public static FoodPrefixIndex build(List<Food> catalog) {
+        Food[] foods = catalog.toArray(new Food[0]);
+        String[] names = new String[foods.length];
+        List<Key> keys = new ArrayList<>();
+        for (int i = 0; i < foods.length; i++) {
+            names[i] = normalize(foods[i].getName());
+            String name = names[i];
+            for (int start = 0; start < name.length(); start = name.indexOf(' ', start) + 1) {
+                keys.add(new Key(name.substring(start), i));
+                if (name.indexOf(' ', start) < 0) {
+                    break;
+                }
+            }
+        }
+        keys.sort(Comparator.comparing(Key::text));
+
+        String[] sortedKeys = new String[keys.size()];
+        int[] keyFoods = new int[keys.size()];
+        for (int i = 0; i < keys.size(); i++) {
+            sortedKeys[i] = keys.get(i).text;
+            keyFoods[i] = keys.get(i).food;
+        }
+        return new FoodPrefixIndex(foods, names, sortedKeys, keyFoods);
+    }
+
+    // lower case, accents and punctuation removed, words separated by single spaces
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return decomposed.toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N}]+", " ").trim();
+    }
+
+    public int size() {
+        return foods.length;
+    }
+
+    // foods with a word starting with the query, most often logged by the user first (timesLogged is keyed
+    // by normalized food name), then names starting with the query, then shorter names
+    public List<FoodSuggestionDTO> search(String query, Map<String, Integer> timesLogged, int limit) {
+        String prefix = normalize(query);
+        if (prefix.isEmpty()) {
+            return List.of();
+        }
+
+        // food -> whether the match is at the start of its name. The user's logged foods go in first so the
+        // cap never drops them
+        Map<Integer, Boolean> candidates = new LinkedHashMap<>();
+        for (String name : timesLogged.keySet()) {
+            if (name.startsWith(prefix) || name.contains(" " + prefix)) {
+                for (int i = firstKey(name); i < keys.length && keys[i].equals(name); i++) {
+                    if (names[keyFoods[i]].equals(name)) {
+                        candidates.put(keyFoods[i], name.startsWith(prefix));
+                    }
+                }
+            }
+        }
+        for (int i = firstKey(prefix); i < keys.length && keys[i].startsWith(prefix); i++) {
+            int food = keyFoods[i];
+            boolean nameStart = keys[i].length() == names[food].length();
+            candidates.merge(food, nameStart, Boolean::logicalOr);
+            if (candidates.size() >= MAX_CANDIDATES) {
+                break;
+            }
+        }
+
+        List<Integer> ranked = new ArrayList<>(candidates.keySet());
+        ranked.sort(Comparator.<Integer>comparingInt(food -> timesLogged.getOrDefault(names[food], 0)).reversed()
+                .thenComparing(food -> !candidates.get(food))
+                .thenComparingInt(food -> names[food].length())
+                .thenComparing(food -> names[food]));
+
+        List<FoodSuggestionDTO> suggestions = new ArrayList<>();
+        for (int food : ranked.subList(0, Math.min(limit, ranked.size()))) {
+            suggestions.add(suggestion(foods[food], timesLogged.getOrDefault(names[food], 0)));
+        }
+        return suggestions;
+    }
+
+    // index of the first key not before text; equal keys of several foods are adjacent
+    private int firstKey(String text) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (keys[middle].compareTo(text) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static FoodSuggestionDTO suggestion(Food food, int timesLogged) {
+        FoodSuggestionDTO suggestion = new FoodSuggestionDTO();
+        suggestion.setId(food.getId());
+        suggestion.setName(food.getName());
+        suggestion.setServing(food.getServing());
+        suggestion.setCalories(food.getCalories());
+        suggestion.setTimesLogged(timesLogged);
+        return suggestion;
+    }
+
+    private static final class Key {
+        private final String text;
+        private final int food;
+
+        private Key(String text, int food) {
+            this.text = text;
+            this.food = food;
+        }
+
+        private String text() {
+            return text;
+        }
+    }
+}
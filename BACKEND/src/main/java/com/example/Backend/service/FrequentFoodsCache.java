@@ -0,0 +1,266 @@
+package com.example.Backend.service;
+
+import com.example.Backend.dto.FrequentFoodDTO;
+import com.example.Backend.model.FoodLog;
+import com.example.Backend.model.FrequentFoods;
+import com.example.Backend.repository.FoodFrequencyRepository;
+import com.example.Backend.repository.FrequentFoodsRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// per-user recent and frequent (foodName, mealType, calories) combinations, kept up to date in memory on every
+// food log and written to frequent_foods lazily: every flush interval and when a user is evicted. A user's list
+// is loaded from frequent_foods once, or seeded from food_logs if none is stored yet. Each instance flushes
+// its own copy, so with several instances the last writer wins until the next flush
+@Component
+public class FrequentFoodsCache implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(FrequentFoodsCache.class);
+
+    private final FrequentFoodsRepository frequentFoodsRepository;
+    private final FoodFrequencyRepository foodFrequencyRepository;
+    private final int maxFoodsPerUser;
+    private final Cache<String, UserFoods> users;
+
+    // users changed since their document was last written
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public FrequentFoodsCache(FrequentFoodsRepository frequentFoodsRepository,
+            FoodFrequencyRepository foodFrequencyRepository,
+            @Value("${nutrition.frequent-foods.max-users:10000}") long maxUsers,
+            @Value("${nutrition.frequent-foods.max-foods-per-user:30}") int maxFoodsPerUser) {
+        this.frequentFoodsRepository = frequentFoodsRepository;
+        this.foodFrequencyRepository = foodFrequencyRepository;
+        this.maxFoodsPerUser = maxFoodsPerUser;
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .removalListener((String userId, UserFoods foods, RemovalCause cause) -> {
+                    if (cause.wasEvicted() && foods != null && dirty.remove(userId)) {
+                        persist(userId, foods);
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    public void record(String userId, FoodLog foodLog) {
+        record(userId, List.of(foodLog));
+    }
+
+    // called once the logs are stored, so a user whose list cannot be loaded only misses them in the suggestions
+    public void record(String userId, List<FoodLog> foodLogs) {
+        try {
+            Instant now = Instant.now();
+            UserFoods foods = users.get(userId, this::load);
+            for (FoodLog foodLog : foodLogs) {
+                foods.add(foodLog, 1, now);
+            }
+            dirty.add(userId);
+        } catch (RuntimeException e) {
+            log.warn("Could not record food logs of user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    // a deleted log no longer counts, its combination is dropped once nothing is left of it
+    public void forget(String userId, FoodLog foodLog) {
+        try {
+            UserFoods foods = users.get(userId, this::load);
+            foods.add(foodLog, -1, null);
+            dirty.add(userId);
+        } catch (RuntimeException e) {
+            log.warn("Could not forget a food log of user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    public List<FrequentFoodDTO> recent(String userId, int limit) {
+        return users.get(userId, this::load).top(limit,
+                Comparator.comparing(FrequentFoods.Entry::getLastLoggedAt).reversed());
+    }
+
+    public List<FrequentFoodDTO> frequent(String userId, int limit) {
+        return users.get(userId, this::load).top(limit,
+                Comparator.comparingInt(FrequentFoods.Entry::getCount).reversed()
+                        .thenComparing(Comparator.comparing(FrequentFoods.Entry::getLastLoggedAt).reversed()));
+    }
+
+    // normalized food name -> times logged, over all meal types and calorie values
+    public Map<String, Integer> timesLogged(String userId) {
+        return users.get(userId, this::load).timesLogged();
+    }
+
+    @Scheduled(fixedDelayString = "${nutrition.frequent-foods.flush-ms:60000}",
+            initialDelayString = "${nutrition.frequent-foods.flush-ms:60000}")
+    public void flush() {
+        for (String userId : dirty) {
+            UserFoods foods = users.getIfPresent(userId);
+            if (dirty.remove(userId) && foods != null) {
+                persist(userId, foods);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void persist(String userId, UserFoods foods) {
+        try {
+            frequentFoodsRepository.save(foods.toDocument(userId));
+        } catch (Exception e) {
+            // retried with the next flush
+            dirty.add(userId);
+            log.warn("Could not save frequent foods of user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    private UserFoods load(String userId) {
+        UserFoods foods = new UserFoods(maxFoodsPerUser);
+        FrequentFoods stored = frequentFoodsRepository.findById(userId).orElse(null);
+        if (stored != null) {
+            stored.getFoods().forEach(foods::put);
+            return foods;
+        }
+
+        for (FoodFrequencyRepository.FoodCount count : foodFrequencyRepository.topFoods(userId, maxFoodsPerUser)) {
+            FrequentFoods.Entry entry = new FrequentFoods.Entry();
+            entry.setFoodName(count.getFoodName());
+            entry.setMealType(count.getMealType());
+            entry.setCalories(count.getCalories());
+            entry.setCount(count.getCount());
+            entry.setLastLoggedAt(count.getLastLogged().atStartOfDay(ZoneOffset.UTC).toInstant());
+            foods.put(entry);
+        }
+        if (!foods.isEmpty()) {
+            dirty.add(userId);
+        }
+        return foods;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, users, "frequent_foods");
+        Gauge.builder("nutrition.frequent_foods.dirty", dirty, Set::size)
+                .description("Users whose frequent foods are not written yet")
+                .register(registry);
+    }
+
+    private static String key(String foodName, String mealType, Integer calories) {
+        return FoodPrefixIndex.normalize(foodName) + "|" + mealType + "|" + calories;
+    }
+
+    // bounded per-user list; when full, a new combination replaces the least logged one (the older of equals)
+    private static final class UserFoods {
+
+        private final int maxFoods;
+        private final Map<String, FrequentFoods.Entry> entries = new LinkedHashMap<>();
+
+        private UserFoods(int maxFoods) {
+            this.maxFoods = maxFoods;
+        }
+
+        private synchronized boolean isEmpty() {
+            return entries.isEmpty();
+        }
+
+        private synchronized void put(FrequentFoods.Entry entry) {
+            entries.put(key(entry.getFoodName(), entry.getMealType(), entry.getCalories()), entry);
+        }
+
+        private synchronized void add(FoodLog foodLog, int count, Instant loggedAt) {
+            String key = key(foodLog.getFoodName(), foodLog.getMealType(), foodLog.getCalories());
+            FrequentFoods.Entry entry = entries.get(key);
+            if (entry == null) {
+                if (count <= 0) {
+                    return;
+                }
+                entry = new FrequentFoods.Entry();
+                entry.setMealType(foodLog.getMealType());
+                entry.setCalories(foodLog.getCalories());
+                if (entries.size() >= maxFoods) {
+                    entries.values().stream()
+                            .min(Comparator.comparingInt(FrequentFoods.Entry::getCount)
+                                    .thenComparing(FrequentFoods.Entry::getLastLoggedAt))
+                            .ifPresent(leastUsed -> entries.values().remove(leastUsed));
+                }
+                entries.put(key, entry);
+            }
+
+            entry.setCount(entry.getCount() + count);
+            if (entry.getCount() <= 0) {
+                entries.remove(key);
+            } else if (loggedAt != null) {
+                // the latest spelling of the name is the one offered again
+                entry.setFoodName(foodLog.getFoodName());
+                entry.setLastLoggedAt(loggedAt);
+            }
+        }
+
+        private synchronized List<FrequentFoodDTO> top(int limit, Comparator<FrequentFoods.Entry> order) {
+            return entries.values().stream()
+                    .sorted(order)
+                    .limit(limit)
+                    .map(UserFoods::toDTO)
+                    .toList();
+        }
+
+        private synchronized Map<String, Integer> timesLogged() {
+            Map<String, Integer> timesLogged = new HashMap<>();
+            for (FrequentFoods.Entry entry : entries.values()) {
+                timesLogged.merge(FoodPrefixIndex.normalize(entry.getFoodName()), entry.getCount(), Integer::sum);
+            }
+            return timesLogged;
+        }
+
+        private synchronized FrequentFoods toDocument(String userId) {
+            FrequentFoods document = new FrequentFoods();
+            document.setUserId(userId);
+            List<FrequentFoods.Entry> copies = new ArrayList<>();
+            for (FrequentFoods.Entry entry : entries.values()) {
+                FrequentFoods.Entry copy = new FrequentFoods.Entry();
+                copy.setFoodName(entry.getFoodName());
+                copy.setMealType(entry.getMealType());
+                copy.setCalories(entry.getCalories());
+                copy.setCount(entry.getCount());
+                copy.setLastLoggedAt(entry.getLastLoggedAt());
+                copies.add(copy);
+            }
+            document.setFoods(copies);
+            return document;
+        }
+
+        private static FrequentFoodDTO toDTO(FrequentFoods.Entry entry) {
+            FrequentFoodDTO dto = new FrequentFoodDTO();
+            dto.setFoodName(entry.getFoodName());
+            dto.setMealType(entry.getMealType());
+            dto.setCalories(entry.getCalories());
+            dto.setTimesLogged(entry.getCount());
+            dto.setLastLoggedAt(entry.getLastLoggedAt());
+            return dto;
+        }
+    }
+}
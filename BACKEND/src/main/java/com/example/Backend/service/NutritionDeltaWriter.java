@@ -0,0 +1,72 @@
+package com.example.Backend.service;
+
+import com.example.Backend.model.DailyDeltas;
+import com.example.Backend.model.DailyTotals;
+import com.example.Backend.repository.DailyTotalsRepository;
+import com.example.Backend.repository.NutritionRollupRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.TreeMap;
+
+// writes deltas to the daily totals and the rollups all or nothing: when one of the writes fails, the ones
+// before it are taken back out before the failure is rethrown. Callers that take a delta back out because its
+// log write failed therefore only ever negate deltas that were applied in full
+@Component
+public class NutritionDeltaWriter {
+
+    private final DailyTotalsRepository dailyTotalsRepository;
+    private final NutritionRollupRepository rollupRepository;
+
+    @Autowired
+    public NutritionDeltaWriter(DailyTotalsRepository dailyTotalsRepository,
+            NutritionRollupRepository rollupRepository) {
+        this.dailyTotalsRepository = dailyTotalsRepository;
+        this.rollupRepository = rollupRepository;
+    }
+
+    // every day's totals and then its week and month, in date order; the totals after the change by date
+    public Map<LocalDate, DailyTotals> applyDeltas(String userId, DailyDeltas deltas) {
+        DailyDeltas negated = deltas.negated();
+        Deque<Runnable> applied = new ArrayDeque<>();
+        Map<LocalDate, DailyTotals> totals = new TreeMap<>();
+        try {
+            for (Map.Entry<LocalDate, DailyDeltas.Day> entry : deltas.getDays().entrySet()) {
+                LocalDate date = entry.getKey();
+                DailyDeltas.Day day = entry.getValue();
+                DailyDeltas.Day undo = negated.getDays().get(date);
+                if (day.getFoodEntries() != 0) {
+                    totals.put(date, dailyTotalsRepository.applyFoodDelta(userId, date, day.getMealCalories(),
+                            day.getNutrients(), day.getFoodEntries()));
+                    applied.push(() -> dailyTotalsRepository.applyFoodDelta(userId, date, undo.getMealCalories(),
+                            undo.getNutrients(), undo.getFoodEntries()));
+                }
+                if (day.getWaterEntries() != 0) {
+                    totals.put(date, dailyTotalsRepository.applyWaterDelta(userId, date, day.getGlasses(),
+                            day.getWaterEntries()));
+                    applied.push(() -> dailyTotalsRepository.applyWaterDelta(userId, date, undo.getGlasses(),
+                            undo.getWaterEntries()));
+                }
+                rollupRepository.applyDelta(userId, date, day.getCalories(), day.getNutrients(), day.getGlasses(),
+                        day.getFoodEntries(), day.getWaterEntries());
+                applied.push(() -> rollupRepository.applyDelta(userId, date, undo.getCalories(),
+                        undo.getNutrients(), undo.getGlasses(), undo.getFoodEntries(), undo.getWaterEntries()));
+            }
+        } catch (RuntimeException e) {
+            // latest first; a write that cannot be taken back either is left for a rebuild
+            while (!applied.isEmpty()) {
+                try {
+                    applied.pop().run();
+                } catch (RuntimeException undoFailure) {
+                    e.addSuppressed(undoFailure);
+                }
+            }
+            throw e;
+        }
+        return totals;
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.Backend.service;
+
+import com.example.Backend.model.FoodLog;
+import com.example.Backend.model.Nutrient;
+import com.example.Backend.model.WaterLog;
+import com.example.Backend.repository.LogStreamRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+// exports a user's food and water logs as one date-ordered list, written row by row from two Mongo cursors
+// straight into the response; memory use does not depend on the size of the history
+@Service
+public class NutritionExportService {
+
+    private static final Nutrient[] NUTRIENTS = Nutrient.values();
+
+    private final UserCache userCache;
+    private final LogStreamRepository logStreamRepository;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public NutritionExportService(UserCache userCache, LogStreamRepository logStreamRepository,
+            ObjectMapper objectMapper) {
+        this.userCache = userCache;
+        this.logStreamRepository = logStreamRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    // the body type must be declared for Spring MVC to stream it, so errors are answered without a body
+    public ResponseEntity<StreamingResponseBody> export(String userId, String format) {
+        if (!format.equals("ndjson") && !format.equals("csv")) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (userCache.findGoals(userId).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        boolean csv = format.equals("csv");
+        StreamingResponseBody body = out -> {
+            try (Stream<FoodLog> foodLogs = logStreamRepository.streamFoodLogs(userId);
+                    Stream<WaterLog> waterLogs = logStreamRepository.streamWaterLogs(userId);
+                    RowWriter rows = csv ? new CsvRowWriter(out) : new NdjsonRowWriter(objectMapper, out)) {
+                writeMerged(foodLogs.iterator(), waterLogs.iterator(), rows);
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv") : new MediaType("application", "x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"nutrition-" + userId + "." + format + "\"")
+                .body(body);
+    }
+
+    // both cursors are in date order; on the same day food rows come first
+    private static void writeMerged(Iterator<FoodLog> foodLogs, Iterator<WaterLog> waterLogs, RowWriter rows)
+            throws IOException {
+        FoodLog food = foodLogs.hasNext() ? foodLogs.next() : null;
+        WaterLog water = waterLogs.hasNext() ? waterLogs.next() : null;
+        while (food != null || water != null) {
+            if (water == null || food != null && !food.getDate().isAfter(water.getDate())) {
+                rows.food(food);
+                food = foodLogs.hasNext() ? foodLogs.next() : null;
+            } else {
+                rows.water(water);
+                water = waterLogs.hasNext() ? waterLogs.next() : null;
+            }
+        }
+    }
+
+    interface RowWriter extends AutoCloseable {
+
+        void food(FoodLog log) throws IOException;
+
+        void water(WaterLog log) throws IOException;
+
+        @Override
+        void close() throws IOException;
+    }
+
+    // one JSON object per line
+    private static final class NdjsonRowWriter implements RowWriter {
+
+        private final JsonGenerator generator;
+
+        private NdjsonRowWriter(ObjectMapper objectMapper, OutputStream out) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(out);
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+
+        @Override
+        public void food(FoodLog log) throws IOException {
+            generator.writeStartObject();
+            generator.writeStringField("type", "food");
+            generator.writeStringField("date", log.getDate().toString());
+            generator.writeStringField("mealType", log.getMealType());
+            generator.writeStringField("foodName", log.getFoodName());
+            generator.writeNumberField("calories", log.getCalories());
+            for (Nutrient nutrient : NUTRIENTS) {
+                Double amount = nutrient.logged(log);
+                if (amount != null) {
+                    generator.writeNumberField(nutrient.field(), amount);
+                }
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void water(WaterLog log) throws IOException {
+            generator.writeStartObject();
+            generator.writeStringField("type", "water");
+            generator.writeStringField("date", log.getDate().toString());
+            generator.writeNumberField("glasses", log.getGlasses());
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.close();
+        }
+    }
+
+    static final class CsvRowWriter implements RowWriter {
+
+        private final Writer writer;
+
+        CsvRowWriter(OutputStream out) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            this.writer.write("type,date,mealType,foodName,calories,glasses," + String.join(",", Nutrient.fields())
+                    + "\n");
+        }
+
+        @Override
+        public void food(FoodLog log) throws IOException {
+            writer.write("food," + log.getDate() + "," + escape(log.getMealType()) + "," + escape(log.getFoodName())
+                    + "," + log.getCalories() + ",");
+            for (Nutrient nutrient : NUTRIENTS) {
+                Double amount = nutrient.logged(log);
+                writer.write("," + (amount != null ? amount : ""));
+            }
+            writer.write("\n");
+        }
+
+        @Override
+        public void water(WaterLog log) throws IOException {
+            writer.write("water," + log.getDate() + ",,,," + log.getGlasses() + ",".repeat(NUTRIENTS.length)
+                    + "\n");
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+
+        // RFC 4180: quote fields containing separators, quotes or line breaks and double the quotes
+        private static String escape(String value) {
+            if (value == null) {
+                return "";
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0
+                    && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+    }
+}
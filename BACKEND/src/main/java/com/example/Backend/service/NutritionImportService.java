@@ -0,0 +1,418 @@
+package com.example.Backend.service;
+
+import com.example.Backend.dto.FoodLogDTO;
+import com.example.Backend.dto.WaterLogDTO;
+import com.example.Backend.model.DailyDeltas;
+import com.example.Backend.model.FoodLog;
+import com.example.Backend.model.Nutrient;
+import com.example.Backend.model.WaterLog;
+import com.example.Backend.repository.LogBulkRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// imports food and water logs from an uploaded NDJSON or CSV stream in the format of the export. Lines are
+// parsed and validated one at a time and written in unordered bulk batches; the daily totals and rollups of
+// each day in a batch are updated once per batch
+@Service
+public class NutritionImportService {
+
+    private static final String CSV_HEADER = "type,date,mealType,foodName,calories,glasses,"
+            + String.join(",", Nutrient.fields());
+    // exports from before nutrients were tracked
+    private static final String LEGACY_CSV_HEADER = "type,date,mealType,foodName,calories,glasses";
+    // a quoted field that is never closed stops taking in lines here and is reported as unterminated
+    private static final int MAX_CSV_RECORD_LENGTH = 64 * 1024;
+
+    private final UserCache userCache;
+    private final LogBulkRepository logBulkRepository;
+    private final NutritionDeltaWriter deltaWriter;
+    private final FrequentFoodsCache frequentFoodsCache;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final int batchSize;
+    private final int maxReportedErrors;
+
+    @Autowired
+    public NutritionImportService(UserCache userCache, LogBulkRepository logBulkRepository,
+            NutritionDeltaWriter deltaWriter, FrequentFoodsCache frequentFoodsCache, ObjectMapper objectMapper,
+            Validator validator,
+            @Value("${nutrition.import.batch-size:500}") int batchSize,
+            @Value("${nutrition.import.max-reported-errors:100}") int maxReportedErrors) {
+        this.userCache = userCache;
+        this.logBulkRepository = logBulkRepository;
+        this.deltaWriter = deltaWriter;
+        this.frequentFoodsCache = frequentFoodsCache;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.batchSize = batchSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    public ResponseEntity<?> importLogs(String userId, String format, InputStream body) {
+        if (!format.equals("ndjson") && !format.equals("csv")) {
+            return ResponseEntity.badRequest().body("Format must be ndjson or csv.");
+        }
+        if (userCache.findGoals(userId).isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found");
+        }
+
+        boolean csv = format.equals("csv");
+        ImportBatch batch = new ImportBatch();
+        ImportReport report = new ImportReport();
+        int lineNumber = 0;
+        // every line up to here is imported or reported, a client resumes after it
+        int committedLine = 0;
+        int columns = 0;
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            if (csv) {
+                String header = reader.readLine();
+                lineNumber++;
+                String columnNames = header == null ? "" : header.replace("\uFEFF", "").trim();
+                if (!columnNames.equals(CSV_HEADER) && !columnNames.equals(LEGACY_CSV_HEADER)) {
+                    return ResponseEntity.badRequest().body("CSV header must be: " + CSV_HEADER);
+                }
+                columns = columnNames.split(",").length;
+                committedLine = lineNumber;
+            }
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                // errors are reported at the first line of a record
+                int recordLine = lineNumber;
+                if (csv) {
+                    line = readQuotedLineBreaks(reader, line);
+                    lineNumber += (int) line.chars().filter(c -> c == '\n').count();
+                }
+                try {
+                    Object entry = csv ? parseCsv(line, columns) : parseNdjson(line);
+                    Set<ConstraintViolation<Object>> violations = validator.validate(entry);
+                    if (!violations.isEmpty()) {
+                        report.error(recordLine, violations.stream()
+                                .map(ConstraintViolation::getMessage)
+                                .sorted()
+                                .collect(Collectors.joining(", ")));
+                        continue;
+                    }
+                    batch.add(userId, recordLine, entry);
+                } catch (IllegalArgumentException e) {
+                    report.error(recordLine, e.getMessage());
+                }
+
+                if (batch.size() >= batchSize) {
+                    flush(userId, batch, report);
+                    committedLine = lineNumber;
+                }
+            }
+            flush(userId, batch, report);
+        } catch (IOException e) {
+            // everything flushed so far stays imported, tell the client where to resume
+            return interrupted(report, committedLine, HttpStatus.BAD_REQUEST,
+                    "Upload interrupted after line " + lineNumber + ": " + e.getMessage());
+        } catch (RuntimeException e) {
+            // a batch the database failed to take; flush has taken its deltas back out again
+            return interrupted(report, committedLine, HttpStatus.INTERNAL_SERVER_ERROR,
+                    "Import failed after line " + committedLine + ": " + e.getMessage());
+        }
+
+        Map<String, Object> response = report.toResponse();
+        response.put("message", "Import finished");
+        return ResponseEntity.ok(response);
+    }
+
+    private static ResponseEntity<?> interrupted(ImportReport report, int committedLine, HttpStatus status,
+            String message) {
+        Map<String, Object> response = report.toResponse();
+        response.put("message", message);
+        response.put("lastCommittedLine", committedLine);
+        return ResponseEntity.status(status).body(response);
+    }
+
+    private void flush(String userId, ImportBatch batch, ImportReport report) {
+        // totals and rollups before the logs (see DailyTotalsRepository); rows the server rejects are taken
+        // back out and reported
+        DailyDeltas deltas = DailyDeltas.of(batch.foodLogs, batch.waterLogs);
+        deltaWriter.applyDeltas(userId, deltas);
+        Map<Integer, String> failedFood;
+        Map<Integer, String> failedWater;
+        try {
+            failedFood = logBulkRepository.insertFoodLogs(batch.foodLogs);
+        } catch (RuntimeException e) {
+            deltaWriter.applyDeltas(userId, deltas.negated());
+            throw e;
+        }
+        try {
+            failedWater = logBulkRepository.insertWaterLogs(batch.waterLogs);
+        } catch (RuntimeException e) {
+            deltaWriter.applyDeltas(userId, DailyDeltas.of(List.of(), batch.waterLogs).negated());
+            throw e;
+        }
+
+        DailyDeltas rejected = new DailyDeltas();
+        List<FoodLog> insertedFoodLogs = new ArrayList<>();
+        for (int i = 0; i < batch.foodLogs.size(); i++) {
+            if (failedFood.containsKey(i)) {
+                report.error(batch.foodLines.get(i), failedFood.get(i));
+                rejected.addFood(batch.foodLogs.get(i));
+            } else {
+                insertedFoodLogs.add(batch.foodLogs.get(i));
+                report.importedFood++;
+            }
+        }
+        for (int i = 0; i < batch.waterLogs.size(); i++) {
+            if (failedWater.containsKey(i)) {
+                report.error(batch.waterLines.get(i), failedWater.get(i));
+                rejected.addWater(batch.waterLogs.get(i));
+            } else {
+                report.importedWater++;
+            }
+        }
+        if (!rejected.isEmpty()) {
+            deltaWriter.applyDeltas(userId, rejected.negated());
+        }
+        if (!insertedFoodLogs.isEmpty()) {
+            frequentFoodsCache.record(userId, insertedFoodLogs);
+        }
+
+        batch.clear();
+    }
+
+    // {"type": "food", "date": ..., "mealType": ..., "foodName": ..., "calories": ...}
+    // or {"type": "water", "date": ..., "glasses": ...}
+    private Object parseNdjson(String line) {
+        try {
+            JsonNode node = objectMapper.readTree(line);
+            String type = node.path("type").asText();
+            if (type.equals("food")) {
+                return objectMapper.treeToValue(node, FoodLogDTO.class);
+            }
+            if (type.equals("water")) {
+                return objectMapper.treeToValue(node, WaterLogDTO.class);
+            }
+            throw new IllegalArgumentException("Type must be food or water");
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    // the export quotes names containing line breaks, so a record continues on the next lines while a quoted
+    // field is open. Line breaks inside the field come back as \n
+    static String readQuotedLineBreaks(BufferedReader reader, String line) throws IOException {
+        StringBuilder record = new StringBuilder(line);
+        String next;
+        while (inQuotedField(record) && record.length() < MAX_CSV_RECORD_LENGTH
+                && (next = reader.readLine()) != null) {
+            record.append('\n').append(next);
+        }
+        return record.toString();
+    }
+
+    // doubled quotes inside a field count twice, so an odd number of quotes leaves a field open
+    private static boolean inQuotedField(CharSequence record) {
+        int quotes = 0;
+        for (int i = 0; i < record.length(); i++) {
+            if (record.charAt(i) == '"') {
+                quotes++;
+            }
+        }
+        return quotes % 2 == 1;
+    }
+
+    static Object parseCsv(String line, int columns) {
+        List<String> fields = splitCsv(line);
+        if (fields.size() != columns) {
+            throw new IllegalArgumentException("Expected " + columns + " columns but found " + fields.size());
+        }
+
+        switch (fields.get(0)) {
+            case "food":
+                FoodLogDTO foodLogDTO = new FoodLogDTO();
+                foodLogDTO.setDate(parseDate(fields.get(1)));
+                foodLogDTO.setMealType(fields.get(2));
+                foodLogDTO.setFoodName(fields.get(3));
+                foodLogDTO.setCalories(parseInteger(fields.get(4)));
+                if (columns > 6) {
+                    foodLogDTO.setProtein(parseDouble(fields.get(6)));
+                    foodLogDTO.setCarbs(parseDouble(fields.get(7)));
+                    foodLogDTO.setFat(parseDouble(fields.get(8)));
+                    foodLogDTO.setFiber(parseDouble(fields.get(9)));
+                    foodLogDTO.setSodium(parseDouble(fields.get(10)));
+                }
+                return foodLogDTO;
+            case "water":
+                WaterLogDTO waterLogDTO = new WaterLogDTO();
+                waterLogDTO.setDate(parseDate(fields.get(1)));
+                waterLogDTO.setGlasses(parseInteger(fields.get(5)));
+                return waterLogDTO;
+            default:
+                throw new IllegalArgumentException("Type must be food or water");
+        }
+    }
+
+    // RFC 4180 fields of one record: quoted fields may contain commas, doubled quotes and line breaks
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    // empty values are left to the DTO constraints
+    private static LocalDate parseDate(String value) {
+        if (value.isEmpty()) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date format. Use YYYY-MM-DD.");
+        }
+    }
+
+    private static Integer parseInteger(String value) {
+        if (value.isEmpty()) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number: " + value);
+        }
+    }
+
+    private static Double parseDouble(String value) {
+        if (value.isEmpty()) {
+            return null;
+        }
+        try {
+            return Double.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number: " + value);
+        }
+    }
+
+    // valid rows waiting for the next bulk write, with the line each came from
+    private static final class ImportBatch {
+
+        private final List<FoodLog> foodLogs = new ArrayList<>();
+        private final List<Integer> foodLines = new ArrayList<>();
+        private final List<WaterLog> waterLogs = new ArrayList<>();
+        private final List<Integer> waterLines = new ArrayList<>();
+
+        private void add(String userId, int lineNumber, Object entry) {
+            if (entry instanceof FoodLogDTO foodLogDTO) {
+                FoodLog foodLog = new FoodLog();
+                foodLog.setUserId(userId);
+                foodLog.setDate(foodLogDTO.getDate());
+                foodLog.setMealType(foodLogDTO.getMealType());
+                foodLog.setFoodName(foodLogDTO.getFoodName());
+                foodLog.setCalories(foodLogDTO.getCalories());
+                foodLog.setProtein(foodLogDTO.getProtein());
+                foodLog.setCarbs(foodLogDTO.getCarbs());
+                foodLog.setFat(foodLogDTO.getFat());
+                foodLog.setFiber(foodLogDTO.getFiber());
+                foodLog.setSodium(foodLogDTO.getSodium());
+                foodLogs.add(foodLog);
+                foodLines.add(lineNumber);
+            } else {
+                WaterLogDTO waterLogDTO = (WaterLogDTO) entry;
+                WaterLog waterLog = new WaterLog();
+                waterLog.setUserId(userId);
+                waterLog.setDate(waterLogDTO.getDate());
+                waterLog.setGlasses(waterLogDTO.getGlasses());
+                waterLogs.add(waterLog);
+                waterLines.add(lineNumber);
+            }
+        }
+
+        private int size() {
+            return foodLogs.size() + waterLogs.size();
+        }
+
+        private void clear() {
+            foodLogs.clear();
+            foodLines.clear();
+            waterLogs.clear();
+            waterLines.clear();
+        }
+    }
+
+    // counts everything, keeps the first maxReportedErrors error lines
+    private final class ImportReport {
+
+        private int importedFood;
+        private int importedWater;
+        private int failed;
+        private final List<Map<String, Object>> errors = new ArrayList<>();
+
+        private void error(int lineNumber, String message) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                Map<String, Object> error = new HashMap<>();
+                error.put("line", lineNumber);
+                error.put("error", message);
+                errors.add(error);
+            }
+        }
+
+        private Map<String, Object> toResponse() {
+            Map<String, Object> response = new HashMap<>();
+            response.put("importedFoodLogs", importedFood);
+            response.put("importedWaterLogs", importedWater);
+            response.put("failedLines", failed);
+            response.put("errors", errors);
+            response.put("errorsTruncated", failed > errors.size());
+            return response;
+        }
+    }
+}
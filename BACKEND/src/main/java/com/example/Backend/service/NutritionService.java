@@ -1,42 +1,102 @@
 package com.example.Backend.service;
 
+import com.example.Backend.dto.DailyProgressDTO;
+import com.example.Backend.dto.DailyProgressEvent;
+import com.example.Backend.dto.FoodLogBatchDTO;
 import com.example.Backend.dto.FoodLogDTO;
+import com.example.Backend.dto.FoodLogEntryDTO;
 import com.example.Backend.dto.WaterLogDTO;
+import com.example.Backend.dto.WaterLogEntryDTO;
+import com.example.Backend.model.DailyDeltas;
+import com.example.Backend.model.DailyTotals;
 import com.example.Backend.model.FoodLog;
-import com.example.Backend.model.User;
+import com.example.Backend.model.NutrientTotals;
+import com.example.Backend.model.NutritionRollup;
 import com.example.Backend.model.WaterLog;
+import com.example.Backend.repository.DailyTotalsRepository;
+import com.example.Backend.repository.FoodLogHistoryRepository;
 import com.example.Backend.repository.FoodLogRepository;
-import com.example.Backend.repository.UserRepository;
+import com.example.Backend.repository.NutritionGoals;
+import com.example.Backend.repository.NutritionRollupRepository;
+import com.example.Backend.repository.ProgressAggregationRepository;
 import com.example.Backend.repository.WaterLogRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IntSummaryStatistics;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
 
 @Service
 public class NutritionService {
 
+    private static final int MAX_RANGE_DAYS = 366;
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+    private static final int MAX_FREQUENT_FOODS = 30;
+
     private final FoodLogRepository foodLogRepository;
     private final WaterLogRepository waterLogRepository;
-    private final UserRepository userRepository;
+    private final UserCache userCache;
+    private final DailyTotalsRepository dailyTotalsRepository;
+    private final ProgressAggregationRepository progressAggregationRepository;
+    private final FoodLogHistoryRepository foodLogHistoryRepository;
+    private final NutritionRollupRepository rollupRepository;
+    private final NutritionDeltaWriter deltaWriter;
+    private final ParallelQueryExecutor queryExecutor;
+    private final DailyProgressPublisher progressPublisher;
+    private final FrequentFoodsCache frequentFoodsCache;
+    private final Counter calorieGoalWarnings;
+    private final Counter waterGoalMessages;
 
     @Autowired
     public NutritionService(FoodLogRepository foodLogRepository, WaterLogRepository waterLogRepository,
-            UserRepository userRepository) {
+            UserCache userCache, DailyTotalsRepository dailyTotalsRepository,
+            ProgressAggregationRepository progressAggregationRepository,
+            FoodLogHistoryRepository foodLogHistoryRepository, NutritionRollupRepository rollupRepository,
+            NutritionDeltaWriter deltaWriter, ParallelQueryExecutor queryExecutor,
+            DailyProgressPublisher progressPublisher, FrequentFoodsCache frequentFoodsCache,
+            MeterRegistry meterRegistry) {
         this.foodLogRepository = foodLogRepository;
         this.waterLogRepository = waterLogRepository;
-        this.userRepository = userRepository;
+        this.userCache = userCache;
+        this.dailyTotalsRepository = dailyTotalsRepository;
+        this.progressAggregationRepository = progressAggregationRepository;
+        this.foodLogHistoryRepository = foodLogHistoryRepository;
+        this.rollupRepository = rollupRepository;
+        this.deltaWriter = deltaWriter;
+        this.queryExecutor = queryExecutor;
+        this.progressPublisher = progressPublisher;
+        this.frequentFoodsCache = frequentFoodsCache;
+        this.calorieGoalWarnings = Counter.builder("nutrition.goal.warnings")
+                .description("Logs that pushed a day past the user's goal")
+                .tag("goal", "calories")
+                .register(meterRegistry);
+        this.waterGoalMessages = Counter.builder("nutrition.goal.warnings")
+                .description("Logs that pushed a day past the user's goal")
+                .tag("goal", "water")
+                .register(meterRegistry);
     }
 
     public ResponseEntity<?> logFood(String userId, FoodLogDTO foodLogDTO) {
-        Optional<User> userOpt = userRepository.findById(userId);
-        if (userOpt.isEmpty()) {
+        Optional<NutritionGoals> goalsOpt = userCache.findGoals(userId);
+        if (goalsOpt.isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found");
         }
 
@@ -46,22 +106,99 @@ public class NutritionService {
         foodLog.setMealType(foodLogDTO.getMealType());
         foodLog.setFoodName(foodLogDTO.getFoodName());
         foodLog.setCalories(foodLogDTO.getCalories());
+        foodLog.setProtein(foodLogDTO.getProtein());
+        foodLog.setCarbs(foodLogDTO.getCarbs());
+        foodLog.setFat(foodLogDTO.getFat());
+        foodLog.setFiber(foodLogDTO.getFiber());
+        foodLog.setSodium(foodLogDTO.getSodium());
 
-        // Check calorie limits
-        User user = userOpt.get();
+        NutritionGoals goals = goalsOpt.get();
         Map<String, Object> response = new HashMap<>();
-        if (user.getDailyCalorieGoal() != null) {
-            List<FoodLog> dailyLogs = foodLogRepository.findByUserIdAndDate(userId, foodLogDTO.getDate());
-            int totalCalories = dailyLogs.stream().mapToInt(FoodLog::getCalories).sum() + foodLogDTO.getCalories();
-            if (totalCalories > user.getDailyCalorieGoal()) {
+
+        try {
+            // totals and rollups before the log, see DailyTotalsRepository
+            DailyTotals totals = applyFoodLog(userId, foodLog, 1);
+            try {
+                foodLogRepository.save(foodLog);
+            } catch (RuntimeException e) {
+                applyFoodLog(userId, foodLog, -1);
+                throw e;
+            }
+            publishFoodDelta(userId, totals, Collections.singletonMap(foodLog.getMealType(), foodLog.getCalories()));
+
+            // Check calorie limits
+            if (goals.getDailyCalorieGoal() != null && totals.getCalories() > goals.getDailyCalorieGoal()) {
                 response.put("warning", "This meal exceeds your daily calorie goal!");
+                calorieGoalWarnings.increment();
             }
+            response.put("message", "Food logged successfully");
+            response.put("foodLog", foodLog);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Failed to log food: " + e.getMessage());
+        }
+        // the log is stored, the cache only logs what it could not take
+        frequentFoodsCache.record(userId, foodLog);
+        return ResponseEntity.ok(response);
+    }
+
+    public ResponseEntity<?> logFoodBatch(String userId, FoodLogBatchDTO batchDTO) {
+        Optional<NutritionGoals> goalsOpt = userCache.findGoals(userId);
+        if (goalsOpt.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found");
         }
 
+        List<FoodLog> foodLogs = new ArrayList<>(batchDTO.getEntries().size());
+        for (FoodLogDTO entry : batchDTO.getEntries()) {
+            FoodLog foodLog = new FoodLog();
+            foodLog.setUserId(userId);
+            foodLog.setDate(entry.getDate());
+            foodLog.setMealType(entry.getMealType());
+            foodLog.setFoodName(entry.getFoodName());
+            foodLog.setCalories(entry.getCalories());
+            foodLog.setProtein(entry.getProtein());
+            foodLog.setCarbs(entry.getCarbs());
+            foodLog.setFat(entry.getFat());
+            foodLog.setFiber(entry.getFiber());
+            foodLog.setSodium(entry.getSodium());
+            foodLogs.add(foodLog);
+        }
+
+        // Group the entries by day so every affected day's totals are updated once
+        DailyDeltas deltas = DailyDeltas.of(foodLogs, List.of());
+
+        NutritionGoals goals = goalsOpt.get();
         try {
-            foodLogRepository.save(foodLog);
-            response.put("message", "Food logged successfully");
-            response.put("foodLog", foodLog);
+            // all or nothing, so a failed insert takes back out exactly what was applied
+            Map<LocalDate, DailyTotals> totalsByDate = deltaWriter.applyDeltas(userId, deltas);
+            List<FoodLog> savedLogs;
+            try {
+                savedLogs = foodLogRepository.insert(foodLogs);
+            } catch (RuntimeException e) {
+                deltaWriter.applyDeltas(userId, deltas.negated());
+                throw e;
+            }
+
+            Map<LocalDate, Object> dailyResults = new TreeMap<>();
+            deltas.getDays().forEach((date, day) -> {
+                DailyTotals totals = totalsByDate.get(date);
+                publishFoodDelta(userId, totals, day.getMealCalories());
+
+                Map<String, Object> dailyResult = new HashMap<>();
+                dailyResult.put("caloriesConsumed", totals.getCalories());
+                dailyResult.put("calorieGoal", goals.getDailyCalorieGoal());
+                if (goals.getDailyCalorieGoal() != null && totals.getCalories() > goals.getDailyCalorieGoal()) {
+                    dailyResult.put("warning", "These meals exceed your daily calorie goal!");
+                    calorieGoalWarnings.increment();
+                }
+                dailyResults.put(date, dailyResult);
+            });
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("message", savedLogs.size() + " food entries logged successfully");
+            response.put("foodLogs", savedLogs);
+            response.put("dailyResults", dailyResults);
+            frequentFoodsCache.record(userId, savedLogs);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -70,8 +207,8 @@ public class NutritionService {
     }
 
     public ResponseEntity<?> logWater(String userId, WaterLogDTO waterLogDTO) {
-        Optional<User> userOpt = userRepository.findById(userId);
-        if (userOpt.isEmpty()) {
+        Optional<NutritionGoals> goalsOpt = userCache.findGoals(userId);
+        if (goalsOpt.isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found");
         }
 
@@ -80,19 +217,24 @@ public class NutritionService {
         waterLog.setDate(waterLogDTO.getDate());
         waterLog.setGlasses(waterLogDTO.getGlasses());
 
-        // Check water goal
-        User user = userOpt.get();
+        NutritionGoals goals = goalsOpt.get();
         Map<String, Object> response = new HashMap<>();
-        if (user.getDailyWaterGoal() != null) {
-            List<WaterLog> dailyLogs = waterLogRepository.findByUserIdAndDate(userId, waterLogDTO.getDate());
-            int totalGlasses = dailyLogs.stream().mapToInt(WaterLog::getGlasses).sum() + waterLogDTO.getGlasses();
-            if (totalGlasses > user.getDailyWaterGoal()) {
-                response.put("message", "Great job! You've exceeded your daily water goal!");
-            }
-        }
 
         try {
-            waterLogRepository.save(waterLog);
+            DailyTotals totals = applyWaterLog(userId, waterLog, 1);
+            try {
+                waterLogRepository.save(waterLog);
+            } catch (RuntimeException e) {
+                applyWaterLog(userId, waterLog, -1);
+                throw e;
+            }
+            progressPublisher.publish(userId, DailyProgressEvent.of(totals, 0, waterLog.getGlasses(), Map.of()));
+
+            // Check water goal; next to the message, which is always the confirmation, so it is not overwritten
+            if (goals.getDailyWaterGoal() != null && totals.getGlasses() > goals.getDailyWaterGoal()) {
+                response.put("warning", "Great job! You've exceeded your daily water goal!");
+                waterGoalMessages.increment();
+            }
             response.put("message", "Water logged successfully");
             response.put("waterLog", waterLog);
             return ResponseEntity.ok(response);
@@ -102,42 +244,87 @@ public class NutritionService {
         }
     }
 
-    public ResponseEntity<?> getDailyProgress(String userId, LocalDate date) {
-        Optional<User> userOpt = userRepository.findById(userId);
-        if (userOpt.isEmpty()) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found");
+    // the summary view only reads the day's totals; the full view adds the day's food and water entries
+    public ResponseEntity<?> getDailyProgress(String userId, LocalDate date, boolean includeLogs) {
+        // None of these reads depends on another, so issue them together
+        CompletableFuture<Optional<NutritionGoals>> goalsFuture = queryExecutor
+                .submit(() -> userCache.findGoals(userId));
+        CompletableFuture<DailyTotals> totalsFuture = queryExecutor
+                .submit(() -> dailyTotalsRepository.findOrRebuild(userId, date));
+        CompletableFuture<List<FoodLogEntryDTO>> foodLogsFuture = includeLogs
+                ? queryExecutor.submit(() -> foodLogRepository.findEntriesByUserIdAndDate(userId, date))
+                : CompletableFuture.completedFuture(null);
+        CompletableFuture<List<WaterLogEntryDTO>> waterLogsFuture = includeLogs
+                ? queryExecutor.submit(() -> waterLogRepository.findEntriesByUserIdAndDate(userId, date))
+                : CompletableFuture.completedFuture(null);
+        try {
+            queryExecutor.awaitAll(goalsFuture, totalsFuture, foodLogsFuture, waterLogsFuture);
+        } catch (TimeoutException e) {
+            return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body("Timed out loading daily progress");
         }
 
-        User user = userOpt.get();
-        List<FoodLog> foodLogs = foodLogRepository.findByUserIdAndDate(userId, date);
-        List<WaterLog> waterLogs = waterLogRepository.findByUserIdAndDate(userId, date);
+        Optional<NutritionGoals> goalsOpt = goalsFuture.join();
+        if (goalsOpt.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found");
+        }
 
-        int totalCalories = foodLogs.stream().mapToInt(FoodLog::getCalories).sum();
-        int totalGlasses = waterLogs.stream().mapToInt(WaterLog::getGlasses).sum();
+        return ResponseEntity.ok(dailyProgress(goalsOpt.get(), totalsFuture.join(), foodLogsFuture.join(),
+                waterLogsFuture.join()));
+    }
 
-        Map<String, Object> response = new HashMap<>();
-        response.put("caloriesConsumed", totalCalories);
-        response.put("calorieGoal", user.getDailyCalorieGoal());
-        response.put("caloriesRemaining",
-                user.getDailyCalorieGoal() != null ? user.getDailyCalorieGoal() - totalCalories : 0);
-        response.put("waterConsumed", totalGlasses);
-        response.put("waterGoal", user.getDailyWaterGoal());
-        response.put("foodLogs", foodLogs);
-        response.put("waterLogs", waterLogs);
-
-        if (user.getDailyCalorieGoal() != null && totalCalories > user.getDailyCalorieGoal()) {
-            response.put("calorieStatus", "Over goal");
+    // the day's totals against the goals; the log lists are null in the summary view
+    static DailyProgressDTO dailyProgress(NutritionGoals goals, DailyTotals totals, List<FoodLogEntryDTO> foodLogs,
+            List<WaterLogEntryDTO> waterLogs) {
+        int totalCalories = totals.getCalories();
+        int totalGlasses = totals.getGlasses();
+
+        DailyProgressDTO progress = new DailyProgressDTO();
+        progress.setCaloriesConsumed(totalCalories);
+        progress.setCalorieGoal(goals.getDailyCalorieGoal());
+        progress.setCaloriesRemaining(
+                goals.getDailyCalorieGoal() != null ? goals.getDailyCalorieGoal() - totalCalories : 0);
+        progress.setWaterConsumed(totalGlasses);
+        progress.setWaterGoal(goals.getDailyWaterGoal());
+        progress.setMealCalories(totals.getMealCalories());
+        progress.setNutrients(totals.getNutrients());
+        progress.setFoodLogs(foodLogs);
+        progress.setWaterLogs(waterLogs);
+
+        if (goals.getDailyCalorieGoal() != null && totalCalories > goals.getDailyCalorieGoal()) {
+            progress.setCalorieStatus("Over goal");
         } else {
-            response.put("calorieStatus", "Within goal");
+            progress.setCalorieStatus("Within goal");
         }
 
-        if (user.getDailyWaterGoal() != null && totalGlasses >= user.getDailyWaterGoal()) {
-            response.put("waterStatus", "Goal met");
+        if (goals.getDailyWaterGoal() != null && totalGlasses >= goals.getDailyWaterGoal()) {
+            progress.setWaterStatus("Goal met");
         } else {
-            response.put("waterStatus", "Below goal");
+            progress.setWaterStatus("Below goal");
         }
 
-        return ResponseEntity.ok(response);
+        return progress;
+    }
+
+    // opens a stream that starts with the day's totals and then receives a delta event for every write to that day
+    public ResponseEntity<SseEmitter> streamDailyProgress(String userId, LocalDate date) {
+        Optional<NutritionGoals> goalsOpt = userCache.findGoals(userId);
+        if (goalsOpt.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        NutritionGoals goals = goalsOpt.get();
+        DailyTotals totals = dailyTotalsRepository.findOrRebuild(userId, date);
+
+        Map<String, Object> snapshot = new HashMap<>();
+        snapshot.put("date", date);
+        snapshot.put("caloriesConsumed", totals.getCalories());
+        snapshot.put("calorieGoal", goals.getDailyCalorieGoal());
+        snapshot.put("waterConsumed", totals.getGlasses());
+        snapshot.put("waterGoal", goals.getDailyWaterGoal());
+        snapshot.put("mealCalories", totals.getMealCalories());
+        snapshot.put("nutrients", totals.getNutrients());
+
+        return ResponseEntity.ok(progressPublisher.subscribe(userId, date, snapshot));
     }
 
     public ResponseEntity<?> getWeeklyProgress(String userId, LocalDate startDate) {
@@ -149,49 +336,283 @@ public class NutritionService {
         }
 
         LocalDate endDate = startDate.plusDays(6);
-        Optional<User> userOpt = userRepository.findById(userId);
-        if (userOpt.isEmpty()) {
+        return buildRollupProgress(userId, startDate, endDate, NutritionRollup.WEEK, weekStarts(startDate, endDate),
+                "this week");
+    }
+
+    // seven days from any start date lie in one or two ISO weeks
+    static List<LocalDate> weekStarts(LocalDate from, LocalDate to) {
+        return List.of(NutritionRollupRepository.periodStart(NutritionRollup.WEEK, from),
+                NutritionRollupRepository.periodStart(NutritionRollup.WEEK, to)).stream().distinct().toList();
+    }
+
+    public ResponseEntity<?> getMonthlyProgress(String userId, YearMonth month) {
+        LocalDate startDate = month.atDay(1);
+        return buildRollupProgress(userId, startDate, month.atEndOfMonth(), NutritionRollup.MONTH,
+                List.of(startDate), "this month");
+    }
+
+    // monthly totals of one year, read from the twelve month rollups without their per-day entries
+    public ResponseEntity<?> getYearlyProgress(String userId, int year) {
+        List<LocalDate> months = new ArrayList<>(12);
+        for (int month = 1; month <= 12; month++) {
+            months.add(LocalDate.of(year, month, 1));
+        }
+
+        CompletableFuture<Optional<NutritionGoals>> goalsFuture = queryExecutor
+                .submit(() -> userCache.findGoals(userId));
+        CompletableFuture<List<NutritionRollup>> rollupsFuture = queryExecutor
+                .submit(() -> rollupRepository.findOrRebuild(userId, NutritionRollup.MONTH, months, false));
+        try {
+            queryExecutor.awaitAll(goalsFuture, rollupsFuture);
+        } catch (TimeoutException e) {
+            return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body("Timed out loading progress");
+        }
+
+        Optional<NutritionGoals> goalsOpt = goalsFuture.join();
+        if (goalsOpt.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found");
+        }
+
+        NutritionGoals goals = goalsOpt.get();
+        Map<YearMonth, Integer> monthlyCalories = new TreeMap<>();
+        Map<YearMonth, Integer> monthlyWater = new TreeMap<>();
+        Map<YearMonth, NutrientTotals> monthlyNutrients = new TreeMap<>();
+        NutrientTotals totalNutrients = new NutrientTotals();
+        for (NutritionRollup rollup : rollupsFuture.join()) {
+            YearMonth month = YearMonth.from(rollup.getStart());
+            monthlyCalories.put(month, rollup.getCalories());
+            monthlyWater.put(month, rollup.getGlasses());
+            monthlyNutrients.put(month, rollup.getNutrients());
+            totalNutrients.add(rollup.getNutrients());
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("year", year);
+        response.put("monthlyCalories", monthlyCalories);
+        response.put("monthlyWater", monthlyWater);
+        response.put("totalCalories", monthlyCalories.values().stream().mapToInt(Integer::intValue).sum());
+        response.put("totalWater", monthlyWater.values().stream().mapToInt(Integer::intValue).sum());
+        response.put("monthlyNutrients", monthlyNutrients);
+        response.put("totalNutrients", totalNutrients);
+        response.put("calorieGoal", goals.getDailyCalorieGoal());
+        response.put("waterGoal", goals.getDailyWaterGoal());
+        return ResponseEntity.ok(response);
+    }
+
+    public ResponseEntity<?> getRangeProgress(String userId, LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            return ResponseEntity.badRequest().body("End date must not be before start date.");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            return ResponseEntity.badRequest().body("Date range cannot exceed " + MAX_RANGE_DAYS + " days.");
+        }
+
+        CompletableFuture<Optional<NutritionGoals>> goalsFuture = queryExecutor
+                .submit(() -> userCache.findGoals(userId));
+        CompletableFuture<Map<LocalDate, Integer>> caloriesFuture = queryExecutor
+                .submit(() -> progressAggregationRepository.sumCaloriesByDate(userId, from, to));
+        CompletableFuture<Map<LocalDate, Integer>> glassesFuture = queryExecutor
+                .submit(() -> progressAggregationRepository.sumGlassesByDate(userId, from, to));
+        try {
+            queryExecutor.awaitAll(goalsFuture, caloriesFuture, glassesFuture);
+        } catch (TimeoutException e) {
+            return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body("Timed out loading progress");
+        }
+
+        Optional<NutritionGoals> goalsOpt = goalsFuture.join();
+        if (goalsOpt.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found");
+        }
+
+        return ResponseEntity.ok(progressResponse(goalsOpt.get(), from, to, caloriesFuture.join(),
+                glassesFuture.join(), null, "in this period"));
+    }
+
+    public ResponseEntity<?> rebuildRollups(String userId) {
+        if (userCache.findGoals(userId).isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found");
         }
 
-        User user = userOpt.get();
-        List<FoodLog> foodLogs = foodLogRepository.findByUserIdAndDateBetween(userId, startDate, endDate);
-        List<WaterLog> waterLogs = waterLogRepository.findByUserIdAndDateBetween(userId, startDate, endDate);
+        int rollups = rollupRepository.rebuildUser(userId);
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", "Rollups rebuilt successfully");
+        response.put("rollups", rollups);
+        return ResponseEntity.ok(response);
+    }
 
-        Map<LocalDate, Integer> dailyCalories = new HashMap<>();
-        Map<LocalDate, Integer> dailyWater = new HashMap<>();
-        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
-            dailyCalories.put(date, 0);
-            dailyWater.put(date, 0);
+    private ResponseEntity<?> buildRollupProgress(String userId, LocalDate from, LocalDate to, String period,
+            List<LocalDate> starts, String label) {
+        CompletableFuture<Optional<NutritionGoals>> goalsFuture = queryExecutor
+                .submit(() -> userCache.findGoals(userId));
+        CompletableFuture<List<NutritionRollup>> rollupsFuture = queryExecutor
+                .submit(() -> rollupRepository.findOrRebuild(userId, period, starts, true));
+        try {
+            queryExecutor.awaitAll(goalsFuture, rollupsFuture);
+        } catch (TimeoutException e) {
+            return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body("Timed out loading progress");
         }
 
-        foodLogs.forEach(log -> dailyCalories.merge(log.getDate(), log.getCalories(), Integer::sum));
-        waterLogs.forEach(log -> dailyWater.merge(log.getDate(), log.getGlasses(), Integer::sum));
+        Optional<NutritionGoals> goalsOpt = goalsFuture.join();
+        if (goalsOpt.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found");
+        }
+
+        return ResponseEntity.ok(rollupProgress(goalsOpt.get(), rollupsFuture.join(), from, to, label));
+    }
+
+    static Map<String, Object> rollupProgress(NutritionGoals goals, List<NutritionRollup> rollups, LocalDate from,
+            LocalDate to, String label) {
+        Map<LocalDate, Integer> caloriesByDate = new HashMap<>();
+        Map<LocalDate, Integer> glassesByDate = new HashMap<>();
+        Map<LocalDate, NutrientTotals> nutrientsByDate = new HashMap<>();
+        collectLoggedDays(rollups, from, to, caloriesByDate, glassesByDate, nutrientsByDate);
+        return progressResponse(goals, from, to, caloriesByDate, glassesByDate, nutrientsByDate, label);
+    }
+
+    // the days from..to of the rollups; only days that still have entries count as logged
+    static void collectLoggedDays(List<NutritionRollup> rollups, LocalDate from, LocalDate to,
+            Map<LocalDate, Integer> caloriesByDate, Map<LocalDate, Integer> glassesByDate,
+            Map<LocalDate, NutrientTotals> nutrientsByDate) {
+        for (NutritionRollup rollup : rollups) {
+            rollup.getDays().forEach((day, totals) -> {
+                LocalDate date = LocalDate.parse(day);
+                if (date.isBefore(from) || date.isAfter(to)) {
+                    return;
+                }
+                if (totals.getFoodEntries() > 0) {
+                    caloriesByDate.put(date, totals.getCalories());
+                    nutrientsByDate.put(date, totals.getNutrients());
+                }
+                if (totals.getWaterEntries() > 0) {
+                    glassesByDate.put(date, totals.getGlasses());
+                }
+            });
+        }
+    }
+
+    // caloriesByDate, glassesByDate and nutrientsByDate hold the logged days only; the daily maps cover every
+    // day from..to. Without nutrientsByDate the nutrient fields are left out
+    static Map<String, Object> progressResponse(NutritionGoals goals, LocalDate from, LocalDate to,
+            Map<LocalDate, Integer> caloriesByDate, Map<LocalDate, Integer> glassesByDate,
+            Map<LocalDate, NutrientTotals> nutrientsByDate, String period) {
+        Map<LocalDate, Integer> dailyCalories = new TreeMap<>();
+        Map<LocalDate, Integer> dailyWater = new TreeMap<>();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            dailyCalories.put(date, caloriesByDate.getOrDefault(date, 0));
+            dailyWater.put(date, glassesByDate.getOrDefault(date, 0));
+        }
 
         int daysCalorieGoalMet = (int) dailyCalories.values().stream()
-                .filter(calories -> user.getDailyCalorieGoal() != null && calories <= user.getDailyCalorieGoal())
+                .filter(calories -> goals.getDailyCalorieGoal() != null && calories <= goals.getDailyCalorieGoal())
                 .count();
         int daysWaterGoalMet = (int) dailyWater.values().stream()
-                .filter(glasses -> user.getDailyWaterGoal() != null && glasses >= user.getDailyWaterGoal())
+                .filter(glasses -> goals.getDailyWaterGoal() != null && glasses >= goals.getDailyWaterGoal())
                 .count();
 
         Map<String, Object> response = new HashMap<>();
+        response.put("from", from);
+        response.put("to", to);
         response.put("dailyCalories", dailyCalories);
         response.put("dailyWater", dailyWater);
         response.put("daysCalorieGoalMet", daysCalorieGoalMet);
         response.put("daysWaterGoalMet", daysWaterGoalMet);
-        response.put("calorieGoal", user.getDailyCalorieGoal());
-        response.put("waterGoal", user.getDailyWaterGoal());
+        response.put("calorieGoal", goals.getDailyCalorieGoal());
+        response.put("waterGoal", goals.getDailyWaterGoal());
+        response.put("calorieStats", loggedDayStats(caloriesByDate));
+        response.put("waterStats", loggedDayStats(glassesByDate));
+        if (nutrientsByDate != null) {
+            // one accumulator per day and one for the period, whatever the number of nutrients
+            NutrientTotals none = new NutrientTotals();
+            NutrientTotals totalNutrients = new NutrientTotals();
+            Map<LocalDate, NutrientTotals> dailyNutrients = new TreeMap<>();
+            for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+                NutrientTotals nutrients = nutrientsByDate.getOrDefault(date, none);
+                dailyNutrients.put(date, nutrients);
+                totalNutrients.add(nutrients);
+            }
+            response.put("dailyNutrients", dailyNutrients);
+            response.put("totalNutrients", totalNutrients);
+            response.put("averageNutrients", totalNutrients.dividedBy(nutrientsByDate.size()));
+        }
         response.put("summary",
-                String.format("You met your calorie goal for %d days and water goal for %d days this week!",
-                        daysCalorieGoalMet, daysWaterGoalMet));
+                String.format("You met your calorie goal for %d days and water goal for %d days %s!",
+                        daysCalorieGoalMet, daysWaterGoalMet, period));
+        return response;
+    }
 
+    private static Map<String, Object> loggedDayStats(Map<LocalDate, Integer> valuesByDate) {
+        IntSummaryStatistics statistics = valuesByDate.values().stream()
+                .mapToInt(Integer::intValue)
+                .summaryStatistics();
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("total", statistics.getSum());
+        stats.put("daysLogged", statistics.getCount());
+        stats.put("mean", statistics.getCount() > 0 ? Math.round(statistics.getAverage()) : 0);
+        stats.put("min", statistics.getCount() > 0 ? statistics.getMin() : 0);
+        stats.put("max", statistics.getCount() > 0 ? statistics.getMax() : 0);
+        return stats;
+    }
+
+    // served from FrequentFoodsCache, so opening the food form never scans the user's history
+    public ResponseEntity<?> getFrequentFoods(String userId, int limit) {
+        if (limit < 1 || limit > MAX_FREQUENT_FOODS) {
+            return ResponseEntity.badRequest().body("Limit must be between 1 and " + MAX_FREQUENT_FOODS + ".");
+        }
+        if (userCache.findGoals(userId).isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found");
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("recent", frequentFoodsCache.recent(userId, limit));
+        response.put("frequent", frequentFoodsCache.frequent(userId, limit));
+        return ResponseEntity.ok(response);
+    }
+
+    // before is the nextCursor of the previous page ("<date>_<id>"), absent for the newest entries
+    public ResponseEntity<?> getFoodLogHistory(String userId, String before, int limit) {
+        if (limit < 1 || limit > MAX_HISTORY_PAGE_SIZE) {
+            return ResponseEntity.badRequest().body("Limit must be between 1 and " + MAX_HISTORY_PAGE_SIZE + ".");
+        }
+
+        LocalDate beforeDate = null;
+        ObjectId beforeId = null;
+        if (before != null && !before.isEmpty()) {
+            int separator = before.indexOf('_');
+            if (separator < 0 || !ObjectId.isValid(before.substring(separator + 1))) {
+                return ResponseEntity.badRequest().body("Invalid cursor.");
+            }
+            try {
+                beforeDate = LocalDate.parse(before.substring(0, separator));
+            } catch (DateTimeParseException e) {
+                return ResponseEntity.badRequest().body("Invalid cursor.");
+            }
+            beforeId = new ObjectId(before.substring(separator + 1));
+        }
+
+        if (userCache.findGoals(userId).isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found");
+        }
+
+        // one extra row tells whether another page follows
+        List<FoodLogEntryDTO> page = foodLogHistoryRepository.findPage(userId, beforeDate, beforeId, limit + 1);
+        String nextCursor = null;
+        if (page.size() > limit) {
+            page = page.subList(0, limit);
+            FoodLogEntryDTO last = page.get(limit - 1);
+            nextCursor = last.getDate() + "_" + last.getId();
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("foodLogs", page);
+        response.put("nextCursor", nextCursor);
         return ResponseEntity.ok(response);
     }
 
     public ResponseEntity<?> deleteFoodLog(String userId, String foodLogId) {
-        Optional<User> userOpt = userRepository.findById(userId);
-        if (userOpt.isEmpty()) {
+        Optional<NutritionGoals> goalsOpt = userCache.findGoals(userId);
+        if (goalsOpt.isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found");
         }
 
@@ -206,11 +627,49 @@ public class NutritionService {
         }
 
         try {
-            foodLogRepository.deleteById(foodLogId);
+            // out of the totals before the log is removed, and back in when a concurrent delete removed it first
+            DailyTotals totals = applyFoodLog(userId, foodLog, -1);
+            long deleted;
+            try {
+                deleted = foodLogRepository.deleteByIdAndUserId(foodLogId, userId);
+            } catch (RuntimeException e) {
+                applyFoodLog(userId, foodLog, 1);
+                throw e;
+            }
+            if (deleted == 0) {
+                applyFoodLog(userId, foodLog, 1);
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Food log not found");
+            }
+            publishFoodDelta(userId, totals, Collections.singletonMap(foodLog.getMealType(), -foodLog.getCalories()));
+            frequentFoodsCache.forget(userId, foodLog);
             return ResponseEntity.ok("Food log deleted successfully");
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Failed to delete food log: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    // one log's delta on its day's totals and its week and month, sign -1 takes it back out; all or nothing
+    private DailyTotals applyFoodLog(String userId, FoodLog foodLog, int sign) {
+        return applyLog(userId, foodLog.getDate(), DailyDeltas.of(List.of(foodLog), List.of()), sign);
+    }
+
+    private DailyTotals applyWaterLog(String userId, WaterLog waterLog, int sign) {
+        return applyLog(userId, waterLog.getDate(), DailyDeltas.of(List.of(), List.of(waterLog)), sign);
+    }
+
+    private DailyTotals applyLog(String userId, LocalDate date, DailyDeltas deltas, int sign) {
+        return deltaWriter.applyDeltas(userId, sign < 0 ? deltas.negated() : deltas).get(date);
+    }
+
+    // mealCalories is keyed by meal type, the event uses the same keys as the totals' mealCalories
+    private void publishFoodDelta(String userId, DailyTotals totals, Map<String, Integer> mealCalories) {
+        Map<String, Integer> mealCaloriesDelta = new HashMap<>();
+        int calories = 0;
+        for (Map.Entry<String, Integer> meal : mealCalories.entrySet()) {
+            mealCaloriesDelta.merge(DailyTotalsRepository.mealKey(meal.getKey()), meal.getValue(), Integer::sum);
+            calories += meal.getValue();
+        }
+        progressPublisher.publish(userId, DailyProgressEvent.of(totals, calories, 0, mealCaloriesDelta));
+    }
+}
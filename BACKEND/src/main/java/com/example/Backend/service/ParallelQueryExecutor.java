@@ -0,0 +1,77 @@
+package com.example.Backend.service;
+
+import jakarta.annotation.PreDestroy;
+import com.example.Backend.repository.ReadLimits;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+// runs independent reads of one request side by side on a dedicated bounded pool; when the pool and its
+// queue are full the caller runs the query itself, so overload degrades to the sequential behaviour.
+// Deliberately not an Executor bean, which would switch off Spring Boot's applicationTaskExecutor. The wait
+// for the reads is bounded here, the reads themselves by their maxTime on the server (ReadLimits).
+@Component
+public class ParallelQueryExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+
+    @Autowired
+    public ParallelQueryExecutor(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            @Value("${nutrition.query-executor.threads:32}") int threads,
+            @Value("${nutrition.query-executor.queue-capacity:1000}") int queueCapacity,
+            @Value("${nutrition.query-executor.timeout-ms:" + ReadLimits.MAX_TIME_MS + "}") long timeoutMillis) {
+        ThreadFactory threadFactory = virtualThreads
+                ? Thread.ofVirtual().name("nutrition-query-", 0).factory()
+                : Thread.ofPlatform().name("nutrition-query-", 0).daemon(true).factory();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.CallerRunsPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<T> query) {
+        return CompletableFuture.supplyAsync(query, executor);
+    }
+
+    // waits for all queries; on failure or timeout the others are cancelled and the first cause is rethrown.
+    // Cancelling skips the queries still queued, a read already sent to MongoDB runs on until its maxTime
+    public void awaitAll(CompletableFuture<?>... queries) throws TimeoutException {
+        try {
+            CompletableFuture.allOf(queries).get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            cancel(queries);
+            throw e;
+        } catch (ExecutionException e) {
+            cancel(queries);
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Query failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancel(queries);
+            throw new IllegalStateException("Interrupted while waiting for queries", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private void cancel(CompletableFuture<?>... queries) {
+        for (CompletableFuture<?> query : queries) {
+            query.cancel(false);
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.example.Backend.service;
+
+import com.example.Backend.dto.DailyProgressEvent;
+import com.example.Backend.dto.FoodLogDTO;
+import com.example.Backend.dto.WaterLogDTO;
+import com.example.Backend.dto.FoodLogEntryDTO;
+import com.example.Backend.dto.WaterLogEntryDTO;
+import com.example.Backend.model.DailyTotals;
+import com.example.Backend.model.FoodLog;
+import com.example.Backend.model.NutrientTotals;
+import com.example.Backend.model.NutritionRollup;
+import com.example.Backend.model.WaterLog;
+import com.example.Backend.repository.DailyTotalsRepository;
+import com.example.Backend.repository.NutritionGoals;
+import com.example.Backend.repository.reactive.ReactiveDailyTotalsRepository;
+import com.example.Backend.repository.reactive.ReactiveFoodLogRepository;
+import com.example.Backend.repository.reactive.ReactiveNutritionRollupRepository;
+import com.example.Backend.repository.reactive.ReactiveUserRepository;
+import com.example.Backend.repository.reactive.ReactiveWaterLogRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// non-blocking version of NutritionService on the reactive driver: same documents, same responses (built by
+// NutritionService's own helpers) and the same goal counters, but no request thread is held while MongoDB
+// answers. Reads of one request are subscribed to together.
+@Service
+@ConditionalOnProperty(name = "nutrition.reactive.enabled", havingValue = "true")
+public class ReactiveNutritionService {
+
+    private final ReactiveFoodLogRepository foodLogRepository;
+    private final ReactiveWaterLogRepository waterLogRepository;
+    private final ReactiveUserRepository userRepository;
+    private final ReactiveDailyTotalsRepository dailyTotalsRepository;
+    private final ReactiveNutritionRollupRepository rollupRepository;
+    private final DailyProgressPublisher progressPublisher;
+    private final FrequentFoodsCache frequentFoodsCache;
+    private final Counter calorieGoalWarnings;
+    private final Counter waterGoalMessages;
+
+    @Autowired
+    public ReactiveNutritionService(ReactiveFoodLogRepository foodLogRepository,
+            ReactiveWaterLogRepository waterLogRepository, ReactiveUserRepository userRepository,
+            ReactiveDailyTotalsRepository dailyTotalsRepository, ReactiveNutritionRollupRepository rollupRepository,
+            DailyProgressPublisher progressPublisher, FrequentFoodsCache frequentFoodsCache,
+            MeterRegistry meterRegistry) {
+        this.foodLogRepository = foodLogRepository;
+        this.waterLogRepository = waterLogRepository;
+        this.userRepository = userRepository;
+        this.dailyTotalsRepository = dailyTotalsRepository;
+        this.rollupRepository = rollupRepository;
+        this.progressPublisher = progressPublisher;
+        this.frequentFoodsCache = frequentFoodsCache;
+        // the same meters as NutritionService's, registering them again returns those
+        this.calorieGoalWarnings = Counter.builder("nutrition.goal.warnings")
+                .description("Logs that pushed a day past the user's goal")
+                .tag("goal", "calories")
+                .register(meterRegistry);
+        this.waterGoalMessages = Counter.builder("nutrition.goal.warnings")
+                .description("Logs that pushed a day past the user's goal")
+                .tag("goal", "water")
+                .register(meterRegistry);
+    }
+
+    public Mono<ResponseEntity<?>> logFood(String userId, FoodLogDTO foodLogDTO) {
+        FoodLog foodLog = new FoodLog();
+        foodLog.setUserId(userId);
+        foodLog.setDate(foodLogDTO.getDate());
+        foodLog.setMealType(foodLogDTO.getMealType());
+        foodLog.setFoodName(foodLogDTO.getFoodName());
+        foodLog.setCalories(foodLogDTO.getCalories());
+        foodLog.setProtein(foodLogDTO.getProtein());
+        foodLog.setCarbs(foodLogDTO.getCarbs());
+        foodLog.setFat(foodLogDTO.getFat());
+        foodLog.setFiber(foodLogDTO.getFiber());
+        foodLog.setSodium(foodLogDTO.getSodium());
+
+        return userRepository.findGoalsById(userId)
+                // totals and rollups before the log, see DailyTotalsRepository
+                .<ResponseEntity<?>>flatMap(goals -> applyFoodLog(userId, foodLog, 1)
+                        .flatMap(totals -> foodLogRepository.save(foodLog)
+                                .onErrorResume(e -> applyFoodLog(userId, foodLog, -1).then(Mono.error(e)))
+                                .doOnSuccess(saved -> publishFoodDelta(userId, totals, foodLog, 1))
+                                .then(onBlockingThread(() -> frequentFoodsCache.record(userId, foodLog)))
+                                .thenReturn(totals))
+                        .<ResponseEntity<?>>map(totals -> foodLogged(goals, foodLog, totals))
+                        .onErrorResume(e -> Mono.just(failure("Failed to log food: ", e))))
+                .defaultIfEmpty(userNotFound());
+    }
+
+    public Mono<ResponseEntity<?>> logWater(String userId, WaterLogDTO waterLogDTO) {
+        WaterLog waterLog = new WaterLog();
+        waterLog.setUserId(userId);
+        waterLog.setDate(waterLogDTO.getDate());
+        waterLog.setGlasses(waterLogDTO.getGlasses());
+
+        return userRepository.findGoalsById(userId)
+                .<ResponseEntity<?>>flatMap(goals -> applyWaterLog(userId, waterLog, 1)
+                        .flatMap(totals -> waterLogRepository.save(waterLog)
+                                .onErrorResume(e -> applyWaterLog(userId, waterLog, -1).then(Mono.error(e)))
+                                .doOnSuccess(saved -> progressPublisher.publish(userId,
+                                        DailyProgressEvent.of(totals, 0, waterLog.getGlasses(), Map.of())))
+                                .thenReturn(totals))
+                        .<ResponseEntity<?>>map(totals -> waterLogged(goals, waterLog, totals))
+                        .onErrorResume(e -> Mono.just(failure("Failed to log water: ", e))))
+                .defaultIfEmpty(userNotFound());
+    }
+
+    // the summary view only reads the day's totals; the full view adds the day's food and water entries
+    public Mono<ResponseEntity<?>> getDailyProgress(String userId, LocalDate date, boolean includeLogs) {
+        Mono<List<FoodLogEntryDTO>> foodLogs = includeLogs
+                ? foodLogRepository.findEntriesByUserIdAndDate(userId, date).collectList()
+                : Mono.just(List.of());
+        Mono<List<WaterLogEntryDTO>> waterLogs = includeLogs
+                ? waterLogRepository.findEntriesByUserIdAndDate(userId, date).collectList()
+                : Mono.just(List.of());
+        return userRepository.findGoalsById(userId)
+                .<ResponseEntity<?>>flatMap(goals -> Mono.zip(dailyTotalsRepository.findOrRebuild(userId, date),
+                                foodLogs, waterLogs)
+                        .<ResponseEntity<?>>map(progress -> ResponseEntity.ok(NutritionService.dailyProgress(goals,
+                                progress.getT1(), includeLogs ? progress.getT2() : null,
+                                includeLogs ? progress.getT3() : null))))
+                .defaultIfEmpty(userNotFound());
+    }
+
+    public Mono<ResponseEntity<?>> getWeeklyProgress(String userId, LocalDate startDate) {
+        if (userId == null || userId.trim().isEmpty()) {
+            return Mono.just(ResponseEntity.badRequest().body("User ID is required."));
+        }
+        if (startDate == null) {
+            return Mono.just(ResponseEntity.badRequest().body("Start date is required."));
+        }
+
+        LocalDate endDate = startDate.plusDays(6);
+        return Mono.zip(userRepository.findGoalsById(userId).map(Optional::of).defaultIfEmpty(Optional.empty()),
+                        rollupRepository.findOrRebuild(userId, NutritionRollup.WEEK,
+                                NutritionService.weekStarts(startDate, endDate)))
+                .<ResponseEntity<?>>map(progress -> progress.getT1()
+                        .<ResponseEntity<?>>map(goals -> ResponseEntity.ok(NutritionService.rollupProgress(goals,
+                                progress.getT2(), startDate, endDate, "this week")))
+                        .orElseGet(this::userNotFound));
+    }
+
+    public Mono<ResponseEntity<?>> deleteFoodLog(String userId, String foodLogId) {
+        return userRepository.findGoalsById(userId)
+                .<ResponseEntity<?>>flatMap(goals -> foodLogRepository.findById(foodLogId)
+                        .flatMap(foodLog -> deleteOwnFoodLog(userId, foodLog))
+                        .defaultIfEmpty(ResponseEntity.status(HttpStatus.NOT_FOUND).body("Food log not found")))
+                .defaultIfEmpty(userNotFound());
+    }
+
+    private Mono<ResponseEntity<?>> deleteOwnFoodLog(String userId, FoodLog foodLog) {
+        if (!foodLog.getUserId().equals(userId)) {
+            return Mono.just(ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body("You can only delete your own food logs"));
+        }
+        // out of the totals before the log is removed, and back in when a concurrent delete removed it first
+        return applyFoodLog(userId, foodLog, -1)
+                .<ResponseEntity<?>>flatMap(totals -> foodLogRepository.deleteByIdAndUserId(foodLog.getId(), userId)
+                        .onErrorResume(e -> applyFoodLog(userId, foodLog, 1).then(Mono.error(e)))
+                        .<ResponseEntity<?>>flatMap(deleted -> deleted == 0
+                                ? applyFoodLog(userId, foodLog, 1).thenReturn(
+                                        ResponseEntity.status(HttpStatus.NOT_FOUND).body("Food log not found"))
+                                : Mono.fromRunnable(() -> publishFoodDelta(userId, totals, foodLog, -1))
+                                        .then(onBlockingThread(() -> frequentFoodsCache.forget(userId, foodLog)))
+                                        .thenReturn(ResponseEntity.ok("Food log deleted successfully"))))
+                .onErrorResume(e -> Mono.just(failure("Failed to delete food log: ", e)));
+    }
+
+    // one log's delta on its day's totals and its week and month, sign -1 takes it back out; all or nothing,
+    // as NutritionDeltaWriter does it for the blocking service
+    private Mono<DailyTotals> applyFoodLog(String userId, FoodLog foodLog, int sign) {
+        NutrientTotals nutrients = sign < 0 ? NutrientTotals.of(foodLog).negated() : NutrientTotals.of(foodLog);
+        int calories = sign * foodLog.getCalories();
+        return dailyTotalsRepository.applyFoodDelta(userId, foodLog.getDate(), foodLog.getMealType(), calories,
+                nutrients, sign)
+                .flatMap(totals -> rollupRepository.applyDelta(userId, foodLog.getDate(), calories, nutrients, 0,
+                        sign, 0)
+                        .onErrorResume(e -> dailyTotalsRepository.applyFoodDelta(userId, foodLog.getDate(),
+                                foodLog.getMealType(), -calories, nutrients.negated(), -sign).then(Mono.error(e)))
+                        .thenReturn(totals));
+    }
+
+    private Mono<DailyTotals> applyWaterLog(String userId, WaterLog waterLog, int sign) {
+        int glasses = sign * waterLog.getGlasses();
+        return dailyTotalsRepository.applyWaterDelta(userId, waterLog.getDate(), glasses, sign)
+                .flatMap(totals -> rollupRepository.applyDelta(userId, waterLog.getDate(), 0, null, glasses, 0, sign)
+                        .onErrorResume(e -> dailyTotalsRepository.applyWaterDelta(userId, waterLog.getDate(),
+                                -glasses, -sign).then(Mono.error(e)))
+                        .thenReturn(totals));
+    }
+
+    private void publishFoodDelta(String userId, DailyTotals totals, FoodLog foodLog, int sign) {
+        int calories = sign * foodLog.getCalories();
+        progressPublisher.publish(userId, DailyProgressEvent.of(totals, calories, 0,
+                Map.of(DailyTotalsRepository.mealKey(foodLog.getMealType()), calories)));
+    }
+
+    // the frequent foods cache may load a user from MongoDB, which is kept off the event loop
+    private static Mono<Void> onBlockingThread(Runnable task) {
+        return Mono.fromRunnable(task).subscribeOn(Schedulers.boundedElastic()).then();
+    }
+
+    private ResponseEntity<?> foodLogged(NutritionGoals goals, FoodLog foodLog, DailyTotals totals) {
+        Map<String, Object> response = new HashMap<>();
+        if (goals.getDailyCalorieGoal() != null && totals.getCalories() > goals.getDailyCalorieGoal()) {
+            response.put("warning", "This meal exceeds your daily calorie goal!");
+            calorieGoalWarnings.increment();
+        }
+        response.put("message", "Food logged successfully");
+        response.put("foodLog", foodLog);
+        return ResponseEntity.ok(response);
+    }
+
+    private ResponseEntity<?> waterLogged(NutritionGoals goals, WaterLog waterLog, DailyTotals totals) {
+        Map<String, Object> response = new HashMap<>();
+        if (goals.getDailyWaterGoal() != null && totals.getGlasses() > goals.getDailyWaterGoal()) {
+            response.put("warning", "Great job! You've exceeded your daily water goal!");
+            waterGoalMessages.increment();
+        }
+        response.put("message", "Water logged successfully");
+        response.put("waterLog", waterLog);
+        return ResponseEntity.ok(response);
+    }
+
+    private ResponseEntity<?> userNotFound() {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found");
+    }
+
+    private ResponseEntity<?> failure(String message, Throwable e) {
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(message + e.getMessage());
+    }
+}
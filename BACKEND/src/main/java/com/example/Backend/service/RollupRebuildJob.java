@@ -0,0 +1,56 @@
+package com.example.Backend.service;
+
+import com.example.Backend.model.User;
+import com.example.Backend.repository.NutritionRollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+// regenerates all weekly and monthly rollups from food_logs/water_logs at startup, user by user, e.g. after
+// the rollups were introduced or logs were changed outside the application
+@Component
+@ConditionalOnProperty(name = "nutrition.rollups.rebuild-on-startup", havingValue = "true")
+public class RollupRebuildJob implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(RollupRebuildJob.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final NutritionRollupRepository rollupRepository;
+
+    @Autowired
+    public RollupRebuildJob(MongoTemplate mongoTemplate, NutritionRollupRepository rollupRepository) {
+        this.mongoTemplate = mongoTemplate;
+        this.rollupRepository = rollupRepository;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        rebuildAll();
+    }
+
+    public void rebuildAll() {
+        AtomicInteger users = new AtomicInteger();
+        AtomicInteger rollups = new AtomicInteger();
+        long started = System.currentTimeMillis();
+
+        Query userIds = new Query();
+        userIds.fields().include("_id");
+        try (Stream<User> allUsers = mongoTemplate.stream(userIds, User.class)) {
+            allUsers.forEach(user -> {
+                rollups.addAndGet(rollupRepository.rebuildUser(user.getId()));
+                users.incrementAndGet();
+            });
+        }
+        log.info("Rebuilt {} rollups for {} users in {} ms", rollups.get(), users.get(),
+                System.currentTimeMillis() - started);
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.Backend.service;
+
+import com.example.Backend.dto.UserProfileDTO;
+import com.example.Backend.model.User;
+import com.example.Backend.repository.NutritionGoals;
+import com.example.Backend.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+// in-process cache of user documents for read-only lookups; anything that modifies a user must load it
+// from UserRepository and call invalidate after saving, never mutate an instance handed out from here.
+// The nutrition endpoints only need the goals and batch lookups only the public profiles, those are cached
+// separately from projected reads
+@Component
+public class UserCache implements MeterBinder {
+
+    private final UserRepository userRepository;
+    private final Cache<String, User> users;
+    private final Cache<String, NutritionGoals> goals;
+    private final Cache<String, UserProfileDTO> profiles;
+
+    @Autowired
+    public UserCache(UserRepository userRepository,
+            @Value("${nutrition.user-cache.max-size:10000}") long maxSize,
+            @Value("${nutrition.user-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.userRepository = userRepository;
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        this.goals = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        this.profiles = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    public Optional<User> findById(String userId) {
+        // unknown ids are not cached, the loader returning null leaves no entry behind
+        return Optional.ofNullable(users.get(userId, id -> userRepository.findById(id).orElse(null)));
+    }
+
+    // also tells whether the user exists without loading the whole document
+    public Optional<NutritionGoals> findGoals(String userId) {
+        return Optional.ofNullable(goals.get(userId, id -> userRepository.findGoalsById(id).orElse(null)));
+    }
+
+    // the cached full users among userIds, without loading the others
+    public Map<String, User> findAllPresent(Collection<String> userIds) {
+        return users.getAllPresent(userIds);
+    }
+
+    // one call of loader with all ids that are not cached; ids it does not return are not cached either
+    public Map<String, UserProfileDTO> findProfiles(Collection<String> userIds,
+            Function<Set<? extends String>, Map<String, UserProfileDTO>> loader) {
+        return profiles.getAll(userIds, loader);
+    }
+
+    public void invalidate(String userId) {
+        users.invalidate(userId);
+        goals.invalidate(userId);
+        profiles.invalidate(userId);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, users, "users");
+        CaffeineCacheMetrics.monitor(registry, goals, "user_goals");
+        CaffeineCacheMetrics.monitor(registry, profiles, "user_profiles");
+    }
+
+    public Map<String, Object> getStats() {
+        CacheStats stats = users.stats();
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("size", users.estimatedSize());
+        response.put("hitCount", stats.hitCount());
+        response.put("missCount", stats.missCount());
+        response.put("evictionCount", stats.evictionCount());
+        response.put("hitRate", stats.hitRate());
+        return response;
+    }
+}
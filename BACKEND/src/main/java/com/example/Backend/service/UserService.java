@@ -5,34 +5,52 @@ import com.example.Backend.dto.UserDTO;
 import com.example.Backend.dto.UserProfileDTO;
 import com.example.Backend.dto.UserProfileUpdateDTO;
 import com.example.Backend.enums.RegistrationSource;
+import com.example.Backend.model.Follow;
 import com.example.Backend.model.User;
+import com.example.Backend.repository.FollowRepository;
+import com.example.Backend.repository.LoginCredentials;
+import com.example.Backend.repository.UserProfileRepository;
 import com.example.Backend.repository.UserRepository;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.security.Key;
 import java.util.*;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
 @Service
 public class UserService {
 
+    private static final int MAX_FOLLOW_PAGE_SIZE = 100;
+    private static final int MAX_BATCH_SIZE = 1000;
+    private static final int MAX_BATCH_SKILLS = 10;
+
     private final UserRepository userRepository;
-    private final BCryptPasswordEncoder bCryptPasswordEncoder;
+    private final UserCache userCache;
+    private final FollowRepository followRepository;
+    private final UserProfileRepository userProfileRepository;
+    private final PasswordHasher passwordHasher;
     private final long JWT_EXPIRATION = 86400000; // 24 hours in milliseconds
     private final Key jwtSecretKey;
     private final String jwtSecret = "aslsdadadq9iqpweipqowie293i112313sdadadadqweqe1smgs90329109310"; // Replace with a
                                                                                                        // secure key
 
     @Autowired
-    public UserService(UserRepository userRepository, BCryptPasswordEncoder bCryptPasswordEncoder, Key jwtSecretKey) {
+    public UserService(UserRepository userRepository, UserCache userCache, FollowRepository followRepository,
+            UserProfileRepository userProfileRepository, PasswordHasher passwordHasher, Key jwtSecretKey) {
         this.userRepository = userRepository;
-        this.bCryptPasswordEncoder = bCryptPasswordEncoder;
+        this.userCache = userCache;
+        this.followRepository = followRepository;
+        this.userProfileRepository = userProfileRepository;
+        this.passwordHasher = passwordHasher;
         this.jwtSecretKey = jwtSecretKey;
     }
 
@@ -51,18 +69,14 @@ public class UserService {
         }
 
         if (user.getRegistrationSource() == RegistrationSource.CREDENTIAL && user.getPassword() != null) {
-            user.setPassword(bCryptPasswordEncoder.encode(user.getPassword()));
+            try {
+                user.setPassword(passwordHasher.encode(user.getPassword()));
+            } catch (RejectedExecutionException e) {
+                return hashingBusy();
+            }
         }
 
         // Initialize lists if they're null
-        if (user.getFollowingUsers() == null) {
-            user.setFollowingUsers(new ArrayList<>());
-        }
-
-        if (user.getFollowedUsers() == null) {
-            user.setFollowedUsers(new ArrayList<>());
-        }
-
         if (user.getSkills() == null) {
             user.setSkills(new ArrayList<>());
         }
@@ -77,24 +91,50 @@ public class UserService {
     }
 
     public ResponseEntity<Object> loginUser(String email, String password) {
-        Optional<User> user = userRepository.findByEmail(email);
+        Optional<LoginCredentials> credentials = userRepository.findCredentialsByEmail(email);
 
-        if (user.isEmpty()) {
+        if (credentials.isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User credentials are incorrect");
         }
 
-        User foundUser = user.get();
+        LoginCredentials found = credentials.get();
 
-        if (foundUser.getRegistrationSource() == RegistrationSource.GOOGLE && foundUser.getPassword() == null) {
+        if (found.getRegistrationSource() == RegistrationSource.GOOGLE && found.getPassword() == null) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("User credentials are incorrect");
         }
 
         // for credential users, validate password
-        if (!bCryptPasswordEncoder.matches(password, foundUser.getPassword())) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid credentials");
+        try {
+            if (!passwordHasher.matches(password, found.getPassword())) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid credentials");
+            }
+        } catch (RejectedExecutionException e) {
+            return hashingBusy();
         }
+        if (passwordHasher.needsRehash(found.getPassword())) {
+            rehash(found.getId(), found.getPassword(), password);
+        }
+
+        // the rest of the user is only read once the password matched, through the cache its next requests use
+        Optional<User> user = userCache.findById(found.getId());
+        if (user.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User credentials are incorrect");
+        }
+        return generateTokenResponse(user.get());
+    }
+
+    // the bcrypt cost was changed since this hash was stored; the new hash is written in the background and a
+    // busy pool just leaves it for the next login
+    private void rehash(String userId, String currentHash, String rawPassword) {
+        passwordHasher.encodeLater(rawPassword)
+                .thenAccept(newHash -> userRepository.updatePassword(userId, currentHash, newHash))
+                .exceptionally(e -> null);
+    }
 
-        return generateTokenResponse(foundUser);
+    private static ResponseEntity<Object> hashingBusy() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body("Too many sign-ins right now, please try again shortly");
     }
 
     private ResponseEntity<Object> generateTokenResponse(User user) {
@@ -106,14 +146,14 @@ public class UserService {
         responseMap.put("email", user.getEmail());
         responseMap.put("profileImage", user.getProfileImage());
         responseMap.put("token", token);
-        responseMap.put("followingUsers", user.getFollowingUsers());
-        responseMap.put("followedUsers", user.getFollowedUsers());
+        responseMap.put("followersCount", user.getFollowersCount());
+        responseMap.put("followingCount", user.getFollowingCount());
         responseMap.put("profileCompleted", user.isProfileCompleted());
 
         return ResponseEntity.ok(responseMap);
     }
 
-    private String generateJwtToken(User user) {
+    String generateJwtToken(User user) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + JWT_EXPIRATION);
 
@@ -149,15 +189,15 @@ public class UserService {
         profileDTO.setBio(user.getBio());
         profileDTO.setSkills(user.getSkills());
         profileDTO.setLocation(user.getLocation());
-        profileDTO.setFollowingUsers(user.getFollowingUsers());
-        profileDTO.setFollowedUsers(user.getFollowedUsers());
+        profileDTO.setFollowersCount(user.getFollowersCount());
+        profileDTO.setFollowingCount(user.getFollowingCount());
         profileDTO.setRegistrationSource(user.getRegistrationSource());
 
         return profileDTO;
     }
 
     public ResponseEntity<?> getUserProfile(String userId) {
-        Optional<User> userOpt = userRepository.findById(userId);
+        Optional<User> userOpt = userCache.findById(userId);
 
         if (userOpt.isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found");
@@ -169,44 +209,86 @@ public class UserService {
         return ResponseEntity.ok(profileDTO);
     }
 
-    public List<UserProfileDTO> getUsersByIds(List<String> userIds) {
-        List<User> users = userRepository.findAllById(userIds);
+    // profiles in the order of the requested ids, repeats and unknown ids dropped
+    public ResponseEntity<?> getUsersByIds(List<String> userIds) {
+        Set<String> ids = new LinkedHashSet<>(userIds);
+        if (ids.size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest().body("At most " + MAX_BATCH_SIZE + " ids per request.");
+        }
 
-        return users.stream().map(this::convertToProfileDTO).collect(Collectors.toList());
+        return ResponseEntity.ok(resolveProfiles(ids));
     }
 
-    public ResponseEntity<?> updateUserProfile(String userId, ProfileUpdateDTO profileDTO) {
-        Optional<User> userOpt = userRepository.findById(userId);
+    // full users already in the cache are converted, then cached profiles are used and only the rest is read,
+    // in one projected query
+    private List<UserProfileDTO> resolveProfiles(Collection<String> ids) {
+        Map<String, User> cachedUsers = userCache.findAllPresent(ids);
+        List<String> missing = ids.stream().filter(id -> !cachedUsers.containsKey(id)).collect(Collectors.toList());
+        Map<String, UserProfileDTO> profiles = missing.isEmpty()
+                ? Map.of()
+                : userCache.findProfiles(missing, this::loadProfiles);
+
+        List<UserProfileDTO> resolved = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            User user = cachedUsers.get(id);
+            UserProfileDTO profile = user != null ? batchProfile(user) : profiles.get(id);
+            if (profile != null) {
+                resolved.add(profile);
+            }
+        }
+        return resolved;
+    }
 
-        if (userOpt.isEmpty()) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found");
+    private Map<String, UserProfileDTO> loadProfiles(Set<? extends String> userIds) {
+        return userProfileRepository.findProfiles(List.copyOf(userIds), MAX_BATCH_SKILLS).stream()
+                .collect(Collectors.toMap(UserProfileDTO::getId, profile -> profile));
+    }
+
+    // the same capped view the projected query returns
+    private UserProfileDTO batchProfile(User user) {
+        UserProfileDTO profile = convertToProfileDTO(user);
+        if (profile.getSkills() != null && profile.getSkills().size() > MAX_BATCH_SKILLS) {
+            profile.setSkills(profile.getSkills().subList(0, MAX_BATCH_SKILLS));
         }
+        return profile;
+    }
 
-        User user = userOpt.get();
+    public ResponseEntity<?> updateUserProfile(String userId, ProfileUpdateDTO profileDTO) {
+        Update update = new Update();
 
         if (profileDTO.getName() != null && !profileDTO.getName().trim().isEmpty()) {
-            user.setName(profileDTO.getName());
+            update.set("name", profileDTO.getName());
         }
 
         if (profileDTO.getBio() != null) {
-            user.setBio(profileDTO.getBio());
+            update.set("bio", profileDTO.getBio());
         }
 
         if (profileDTO.getSkills() != null) {
-            user.setSkills(profileDTO.getSkills());
+            update.set("skills", profileDTO.getSkills());
         }
 
         if (profileDTO.getLocation() != null) {
-            user.setLocation(profileDTO.getLocation());
+            update.set("location", profileDTO.getLocation());
         }
 
         if (profileDTO.getProfileImage() != null) {
-            user.setProfileImage(profileDTO.getProfileImage());
+            update.set("profileImage", profileDTO.getProfileImage());
+        }
+
+        if (update.getUpdateObject().isEmpty()) {
+            return userCache.findById(userId)
+                    .<ResponseEntity<?>>map(user -> ResponseEntity.ok(convertToProfileDTO(user)))
+                    .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found"));
         }
 
         try {
-            User updatedUser = userRepository.save(user);
-            return ResponseEntity.ok(convertToProfileDTO(updatedUser));
+            Optional<User> updatedUser = userProfileRepository.update(userId, update);
+            if (updatedUser.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found");
+            }
+            userCache.invalidate(userId);
+            return ResponseEntity.ok(convertToProfileDTO(updatedUser.get()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Failed to update profile: " + e.getMessage());
@@ -214,32 +296,18 @@ public class UserService {
     }
 
     public ResponseEntity<?> followUser(String userId, String followerId) {
-        Optional<User> targetUserOpt = userRepository.findById(userId);
-        Optional<User> followerUserOpt = userRepository.findById(followerId);
-
-        if (targetUserOpt.isEmpty() || followerUserOpt.isEmpty()) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found");
+        if (userId.equals(followerId)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("You cannot follow yourself");
         }
-
-        User targetUser = targetUserOpt.get();
-        User followerUser = followerUserOpt.get();
-
-        if (targetUser.getFollowedUsers().contains(followerId) || followerUser.getFollowingUsers().contains(userId)) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Already following this user");
+        if (userCache.findById(userId).isEmpty() || userCache.findById(followerId).isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found");
         }
 
-        targetUser.getFollowedUsers().add(followerId);
-        followerUser.getFollowingUsers().add(userId);
-
         try {
-            userRepository.save(targetUser);
-            userRepository.save(followerUser);
-
-            Map<String, Object> response = new HashMap<>();
-            response.put("message", "Successfully followed user");
-            response.put("user", convertToProfileDTO(targetUser));
-
-            return ResponseEntity.ok(response);
+            if (!followRepository.follow(followerId, userId)) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Already following this user");
+            }
+            return followResponse("Successfully followed user", userId, followerId);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Failed to follow user: " + e.getMessage());
@@ -247,55 +315,106 @@ public class UserService {
     }
 
     public ResponseEntity<?> unfollowUser(String userId, String followerId) {
-        Optional<User> targetUserOpt = userRepository.findById(userId);
-        Optional<User> followerUserOpt = userRepository.findById(followerId);
-
-        if (targetUserOpt.isEmpty() || followerUserOpt.isEmpty()) {
+        if (userCache.findById(userId).isEmpty() || userCache.findById(followerId).isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found");
         }
 
-        User targetUser = targetUserOpt.get();
-        User followerUser = followerUserOpt.get();
-
-        targetUser.getFollowedUsers().remove(followerId);
-        followerUser.getFollowingUsers().remove(userId);
-
         try {
-            userRepository.save(targetUser);
-            userRepository.save(followerUser);
-
-            Map<String, Object> response = new HashMap<>();
-            response.put("message", "Successfully unfollowed user");
-            response.put("user", convertToProfileDTO(targetUser));
-
-            return ResponseEntity.ok(response);
+            followRepository.unfollow(followerId, userId);
+            return followResponse("Successfully unfollowed user", userId, followerId);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Failed to unfollow user: " + e.getMessage());
         }
     }
 
-    public ResponseEntity<?> updateNutritionProfile(String userId, UserProfileUpdateDTO profileDTO) {
-        Optional<User> userOpt = userRepository.findById(userId);
+    // the counts of both users changed, the target is answered with its new counts
+    private ResponseEntity<?> followResponse(String message, String userId, String followerId) {
+        userCache.invalidate(userId);
+        userCache.invalidate(followerId);
 
-        if (userOpt.isEmpty()) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", message);
+        response.put("user", userCache.findById(userId).map(this::convertToProfileDTO).orElse(null));
+        return ResponseEntity.ok(response);
+    }
+
+    public ResponseEntity<?> getFollowers(String userId, String before, int limit) {
+        return followPage(userId, before, limit, true);
+    }
+
+    public ResponseEntity<?> getFollowing(String userId, String before, int limit) {
+        return followPage(userId, before, limit, false);
+    }
+
+    public ResponseEntity<?> isFollowing(String followerId, String userId) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("following", followRepository.isFollowing(followerId, userId));
+        return ResponseEntity.ok(response);
+    }
+
+    // before is the nextCursor of the previous page (the id of its last edge), absent for the newest edges
+    private ResponseEntity<?> followPage(String userId, String before, int limit, boolean followers) {
+        if (limit < 1 || limit > MAX_FOLLOW_PAGE_SIZE) {
+            return ResponseEntity.badRequest().body("Limit must be between 1 and " + MAX_FOLLOW_PAGE_SIZE + ".");
+        }
+        ObjectId beforeId = null;
+        if (before != null && !before.isEmpty()) {
+            if (!ObjectId.isValid(before)) {
+                return ResponseEntity.badRequest().body("Invalid cursor.");
+            }
+            beforeId = new ObjectId(before);
+        }
+        if (userCache.findById(userId).isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found");
         }
 
-        User user = userOpt.get();
+        // one extra edge tells whether another page follows
+        List<Follow> page = followers
+                ? followRepository.findFollowers(userId, beforeId, limit + 1)
+                : followRepository.findFollowing(userId, beforeId, limit + 1);
+        String nextCursor = null;
+        if (page.size() > limit) {
+            page = page.subList(0, limit);
+            nextCursor = page.get(limit - 1).getId();
+        }
+
+        List<String> userIds = page.stream()
+                .map(follow -> followers ? follow.getFollowerId() : follow.getFolloweeId())
+                .collect(Collectors.toList());
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("users", resolveProfiles(userIds));
+        response.put("nextCursor", nextCursor);
+        return ResponseEntity.ok(response);
+    }
 
+    public ResponseEntity<?> updateNutritionProfile(String userId, UserProfileUpdateDTO profileDTO) {
+        // the goals are computed from the submitted values alone
+        User user = new User();
         user.setAge(profileDTO.getAge());
         user.setWeight(profileDTO.getWeight());
         user.setHeight(profileDTO.getHeight());
         user.setHealthGoal(profileDTO.getHealthGoal());
         user.setDietPreference(profileDTO.getDietPreference());
-        user.setDailyCalorieGoal(calculateDailyCalorieGoal(user));
-        user.setDailyWaterGoal(calculateDailyWaterGoal(user));
-        user.setProfileCompleted(true);
+
+        Update update = new Update()
+                .set("age", user.getAge())
+                .set("weight", user.getWeight())
+                .set("height", user.getHeight())
+                .set("healthGoal", user.getHealthGoal())
+                .set("dietPreference", user.getDietPreference())
+                .set("dailyCalorieGoal", calculateDailyCalorieGoal(user))
+                .set("dailyWaterGoal", calculateDailyWaterGoal(user))
+                .set("profileCompleted", true);
 
         try {
-            User updatedUser = userRepository.save(user);
-            return ResponseEntity.ok(convertToProfileDTO(updatedUser));
+            Optional<User> updatedUser = userProfileRepository.update(userId, update);
+            if (updatedUser.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found");
+            }
+            userCache.invalidate(userId);
+            return ResponseEntity.ok(convertToProfileDTO(updatedUser.get()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Failed to update nutrition profile: " + e.getMessage());
@@ -3,7 +3,8 @@ package com.example.Backend;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = { "nutrition.mongo.ensure-indexes=false", "nutrition.foods.load-on-startup=false",
+		"nutrition.follows.migrate-on-startup=false" })
 class BackendApplicationTests {
 
 	@Test
@@ -0,0 +1,15 @@
+package com.example.Backend;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+// with the reactive api on, both kinds of repositories have to be created
+@SpringBootTest(properties = { "nutrition.reactive.enabled=true", "nutrition.mongo.ensure-indexes=false",
+		"nutrition.foods.load-on-startup=false", "nutrition.follows.migrate-on-startup=false" })
+class ReactiveApplicationTests {
+
+	@Test
+	void contextLoads() {
+	}
+
+}
@@ -0,0 +1,162 @@
+package com.example.Backend.config;
+
+import com.example.Backend.model.FoodLog;
+import com.example.Backend.model.WaterLog;
+import com.example.Backend.repository.FoodLogHistoryRepository;
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+// runs against a plain local mongod (override with -Dtest.mongodb.uri=...); skipped when none is reachable
+// unless run with -Pmongo-tests
+class MongoIndexInitializerTests {
+
+	private static final String MONGO_URI = System.getProperty("test.mongodb.uri", "mongodb://localhost:27017");
+	private static final boolean MONGO_REQUIRED = Boolean.getBoolean("test.mongodb.required");
+	private static final LocalDate START = LocalDate.of(2025, 1, 1);
+
+	private static MongoClient client;
+	private static MongoTemplate mongoTemplate;
+
+	@BeforeAll
+	static void connect() {
+		client = MongoClients.create(MongoClientSettings.builder()
+				.applyConnectionString(new ConnectionString(MONGO_URI))
+				.applyToClusterSettings(cluster -> cluster.serverSelectionTimeout(2, TimeUnit.SECONDS))
+				.build());
+		boolean reachable;
+		try {
+			client.getDatabase("admin").runCommand(new Document("ping", 1));
+			reachable = true;
+		} catch (MongoException e) {
+			reachable = false;
+		}
+		// builds that must run these (-Pmongo-tests) fail instead of skipping them
+		if (MONGO_REQUIRED) {
+			assertTrue(reachable, "No mongod reachable at " + MONGO_URI);
+		}
+		assumeTrue(reachable, "No mongod reachable at " + MONGO_URI);
+
+		mongoTemplate = new MongoTemplate(client, "nutrition_index_test");
+		mongoTemplate.getDb().drop();
+		new MongoIndexInitializer(mongoTemplate).ensureIndexes();
+		seed();
+	}
+
+	@AfterAll
+	static void disconnect() {
+		if (mongoTemplate != null) {
+			mongoTemplate.getDb().drop();
+		}
+		if (client != null) {
+			client.close();
+		}
+	}
+
+	@Test
+	void ensureIndexesIsIdempotent() {
+		new MongoIndexInitializer(mongoTemplate).ensureIndexes();
+	}
+
+	@Test
+	void foodLogsByUserAndDateUseIndex() {
+		assertIndexScan(FoodLog.class, Criteria.where("userId").is("user-3").and("date").is(START.plusDays(10)));
+	}
+
+	@Test
+	void foodLogsByUserAndDateRangeUseIndex() {
+		assertIndexScan(FoodLog.class,
+				Criteria.where("userId").is("user-3").and("date").gt(START).lt(START.plusDays(7)));
+	}
+
+	@Test
+	void waterLogsByUserAndDateUseIndex() {
+		assertIndexScan(WaterLog.class, Criteria.where("userId").is("user-7").and("date").is(START.plusDays(3)));
+	}
+
+	@Test
+	void waterLogsByUserAndDateRangeUseIndex() {
+		assertIndexScan(WaterLog.class,
+				Criteria.where("userId").is("user-7").and("date").gt(START).lt(START.plusDays(7)));
+	}
+
+	@Test
+	void foodLogHistoryPagesUseIndexWithoutSort() {
+		FoodLog newest = mongoTemplate.findOne(
+				FoodLogHistoryRepository.pageQuery("user-5", null, null, 1), FoodLog.class);
+		Query nextPage = FoodLogHistoryRepository.pageQuery("user-5", newest.getDate(),
+				new ObjectId(newest.getId()), 20);
+
+		QueryMapper queryMapper = new QueryMapper(mongoTemplate.getConverter());
+		Document filter = queryMapper.getMappedObject(nextPage.getQueryObject(),
+				mongoTemplate.getConverter().getMappingContext().getPersistentEntity(FoodLog.class));
+		Document explain = mongoTemplate.getCollection(mongoTemplate.getCollectionName(FoodLog.class))
+				.find(filter)
+				.sort(nextPage.getSortObject())
+				.limit(20)
+				.explain();
+		String winningPlan = explain.get("queryPlanner", Document.class).get("winningPlan", Document.class).toJson();
+
+		assertTrue(winningPlan.contains("user_date_id_desc_idx"), "Expected the history index in " + winningPlan);
+		assertFalse(winningPlan.contains("\"SORT\""), "Unexpected in-memory sort in " + winningPlan);
+	}
+
+	private static void assertIndexScan(Class<?> document, Criteria criteria) {
+		// map the criteria the same way the derived repository queries are mapped (LocalDate -> Date etc.)
+		QueryMapper queryMapper = new QueryMapper(mongoTemplate.getConverter());
+		Document filter = queryMapper.getMappedObject(Query.query(criteria).getQueryObject(),
+				mongoTemplate.getConverter().getMappingContext().getPersistentEntity(document));
+
+		Document explain = mongoTemplate.getCollection(mongoTemplate.getCollectionName(document))
+				.find(filter)
+				.explain();
+		String winningPlan = explain.get("queryPlanner", Document.class).get("winningPlan", Document.class).toJson();
+
+		assertTrue(winningPlan.contains("IXSCAN"), "Expected an index scan but got " + winningPlan);
+		assertFalse(winningPlan.contains("COLLSCAN"), "Unexpected collection scan in " + winningPlan);
+	}
+
+	private static void seed() {
+		List<FoodLog> foodLogs = new ArrayList<>();
+		List<WaterLog> waterLogs = new ArrayList<>();
+		for (int user = 0; user < 20; user++) {
+			for (int day = 0; day < 30; day++) {
+				FoodLog foodLog = new FoodLog();
+				foodLog.setUserId("user-" + user);
+				foodLog.setDate(START.plusDays(day));
+				foodLog.setMealType("lunch");
+				foodLog.setFoodName("Rice + Curry");
+				foodLog.setCalories(600);
+				foodLogs.add(foodLog);
+
+				WaterLog waterLog = new WaterLog();
+				waterLog.setUserId("user-" + user);
+				waterLog.setDate(START.plusDays(day));
+				waterLog.setGlasses(2);
+				waterLogs.add(waterLog);
+			}
+		}
+		mongoTemplate.insertAll(foodLogs);
+		mongoTemplate.insertAll(waterLogs);
+	}
+}
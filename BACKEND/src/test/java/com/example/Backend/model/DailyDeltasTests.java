@@ -0,0 +1,81 @@
+package com.example.Backend.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DailyDeltasTests {
+
+	private static final LocalDate MONDAY = LocalDate.of(2025, 3, 3);
+	private static final LocalDate TUESDAY = MONDAY.plusDays(1);
+
+	@Test
+	void sumsEveryLogIntoItsDay() {
+		DailyDeltas deltas = DailyDeltas.of(
+				List.of(foodLog(TUESDAY, "lunch", 600, 30.0), foodLog(MONDAY, "lunch", 500, 20.0),
+						foodLog(MONDAY, "dinner", 700, null), foodLog(MONDAY, "lunch", 100, 2.5)),
+				List.of(waterLog(MONDAY, 3), waterLog(TUESDAY, 2), waterLog(TUESDAY, 1)));
+
+		assertEquals(List.of(MONDAY, TUESDAY), List.copyOf(deltas.getDays().keySet()));
+
+		DailyDeltas.Day monday = deltas.getDays().get(MONDAY);
+		assertEquals(1300, monday.getCalories());
+		assertEquals(Map.of("lunch", 600, "dinner", 700), monday.getMealCalories());
+		assertEquals(22.5, monday.getNutrients().get(Nutrient.PROTEIN));
+		assertEquals(3, monday.getFoodEntries());
+		assertEquals(3, monday.getGlasses());
+		assertEquals(1, monday.getWaterEntries());
+
+		DailyDeltas.Day tuesday = deltas.getDays().get(TUESDAY);
+		assertEquals(600, tuesday.getCalories());
+		assertEquals(1, tuesday.getFoodEntries());
+		assertEquals(3, tuesday.getGlasses());
+		assertEquals(2, tuesday.getWaterEntries());
+	}
+
+	@Test
+	void waterOnlyDaysHaveNoFoodDelta() {
+		DailyDeltas.Day day = DailyDeltas.of(List.of(), List.of(waterLog(MONDAY, 4))).getDays().get(MONDAY);
+
+		assertEquals(0, day.getCalories());
+		assertEquals(0, day.getFoodEntries());
+		assertTrue(day.getMealCalories().isEmpty());
+		assertTrue(day.getNutrients().isZero());
+	}
+
+	@Test
+	void negatedDeltasTakeTheLogsBackOut() {
+		DailyDeltas deltas = DailyDeltas.of(List.of(foodLog(MONDAY, "lunch", 500, 20.0)), List.of(waterLog(MONDAY, 2)));
+		DailyDeltas.Day negated = deltas.negated().getDays().get(MONDAY);
+
+		assertEquals(-500, negated.getCalories());
+		assertEquals(Map.of("lunch", -500), negated.getMealCalories());
+		assertEquals(-20, negated.getNutrients().get(Nutrient.PROTEIN));
+		assertEquals(-1, negated.getFoodEntries());
+		assertEquals(-2, negated.getGlasses());
+		assertEquals(-1, negated.getWaterEntries());
+		// the original is left alone
+		assertEquals(500, deltas.getDays().get(MONDAY).getCalories());
+	}
+
+	private static FoodLog foodLog(LocalDate date, String mealType, int calories, Double protein) {
+		FoodLog foodLog = new FoodLog();
+		foodLog.setDate(date);
+		foodLog.setMealType(mealType);
+		foodLog.setCalories(calories);
+		foodLog.setProtein(protein);
+		return foodLog;
+	}
+
+	private static WaterLog waterLog(LocalDate date, int glasses) {
+		WaterLog waterLog = new WaterLog();
+		waterLog.setDate(date);
+		waterLog.setGlasses(glasses);
+		return waterLog;
+	}
+}
@@ -0,0 +1,62 @@
+package com.example.Backend.model;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NutrientTotalsTests {
+
+	@Test
+	void sumsLogsAndCountsMissingNutrientsAsZero() {
+		NutrientTotals totals = new NutrientTotals()
+				.add(foodLog(30.0, 45.5, null))
+				.add(foodLog(12.5, null, 400.0));
+
+		assertEquals(42.5, totals.get(Nutrient.PROTEIN));
+		assertEquals(45.5, totals.get(Nutrient.CARBS));
+		assertEquals(0, totals.get(Nutrient.FAT));
+		assertEquals(400, totals.get(Nutrient.SODIUM));
+	}
+
+	@Test
+	void negatedDeltaCancelsTheLog() {
+		FoodLog foodLog = foodLog(30.0, 45.5, 400.0);
+		NutrientTotals totals = NutrientTotals.of(foodLog);
+
+		assertFalse(totals.isZero());
+		assertTrue(totals.add(NutrientTotals.of(foodLog).negated()).isZero());
+	}
+
+	@Test
+	void dividedByAveragesAndIgnoresEmptyRanges() {
+		NutrientTotals totals = NutrientTotals.of(foodLog(30.0, 45.0, 400.0));
+
+		assertEquals(10, totals.dividedBy(3).get(Nutrient.PROTEIN));
+		assertTrue(totals.dividedBy(0).isZero());
+	}
+
+	@Test
+	void documentsWrittenBeforeANutrientWasTrackedReadAsZero() {
+		NutrientTotals totals = new NutrientTotals.Reader().convert(new Document("protein", 12).append("fat", 3.5));
+
+		assertEquals(12, totals.get(Nutrient.PROTEIN));
+		assertEquals(3.5, totals.get(Nutrient.FAT));
+		assertEquals(0, totals.get(Nutrient.FIBER));
+
+		Document written = new NutrientTotals.Writer().convert(totals);
+		assertEquals(Nutrient.fields().length, written.size());
+		assertEquals(0.0, written.get("fiber"));
+	}
+
+	private static FoodLog foodLog(Double protein, Double carbs, Double sodium) {
+		FoodLog foodLog = new FoodLog();
+		foodLog.setCalories(500);
+		foodLog.setProtein(protein);
+		foodLog.setCarbs(carbs);
+		foodLog.setSodium(sodium);
+		return foodLog;
+	}
+}
@@ -0,0 +1,186 @@
+package com.example.Backend.repository;
+
+import com.example.Backend.config.MongoIndexInitializer;
+import com.example.Backend.model.Follow;
+import com.example.Backend.model.User;
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+// hammers follow/unfollow from many threads and checks that no edge or count update is lost; runs against a
+// plain local mongod (override with -Dtest.mongodb.uri=...), skipped when none is reachable unless run with
+// -Pmongo-tests
+class FollowRepositoryConcurrencyTests {
+
+	private static final Logger log = LoggerFactory.getLogger(FollowRepositoryConcurrencyTests.class);
+
+	private static final String MONGO_URI = System.getProperty("test.mongodb.uri", "mongodb://localhost:27017");
+	private static final boolean MONGO_REQUIRED = Boolean.getBoolean("test.mongodb.required");
+	private static final int THREADS = 16;
+
+	private static MongoClient client;
+	private static MongoTemplate mongoTemplate;
+	private static FollowRepository followRepository;
+
+	@BeforeAll
+	static void connect() {
+		client = MongoClients.create(MongoClientSettings.builder()
+				.applyConnectionString(new ConnectionString(MONGO_URI))
+				.applyToClusterSettings(cluster -> cluster.serverSelectionTimeout(2, TimeUnit.SECONDS))
+				.build());
+		boolean reachable;
+		try {
+			client.getDatabase("admin").runCommand(new Document("ping", 1));
+			reachable = true;
+		} catch (MongoException e) {
+			reachable = false;
+		}
+		// builds that must run these (-Pmongo-tests) fail instead of skipping them
+		if (MONGO_REQUIRED) {
+			assertTrue(reachable, "No mongod reachable at " + MONGO_URI);
+		}
+		assumeTrue(reachable, "No mongod reachable at " + MONGO_URI);
+
+		mongoTemplate = new MongoTemplate(client, "nutrition_follow_test");
+		mongoTemplate.getDb().drop();
+		new MongoIndexInitializer(mongoTemplate).ensureIndexes();
+		followRepository = new FollowRepository(mongoTemplate);
+	}
+
+	@AfterAll
+	static void disconnect() {
+		if (mongoTemplate != null) {
+			mongoTemplate.getDb().drop();
+		}
+		if (client != null) {
+			client.close();
+		}
+	}
+
+	@BeforeEach
+	void clear() {
+		mongoTemplate.remove(new Query(), Follow.class);
+		mongoTemplate.remove(new Query(), User.class);
+	}
+
+	@Test
+	void concurrentFollowsOfOneUserAreAllCounted() throws Exception {
+		int followers = 800;
+		seedUsers(followers);
+		seedUser("star");
+
+		// every follow is sent twice, the duplicates must neither create an edge nor move a count
+		AtomicInteger followed = new AtomicInteger();
+		List<Callable<Void>> tasks = new ArrayList<>();
+		for (int i = 0; i < followers * 2; i++) {
+			String followerId = "user-" + (i % followers);
+			tasks.add(() -> {
+				if (followRepository.follow(followerId, "star")) {
+					followed.incrementAndGet();
+				}
+				return null;
+			});
+		}
+		report("follow", runAll(tasks), tasks.size());
+
+		assertEquals(followers, followed.get());
+		assertEquals(followers, mongoTemplate.count(new Query(), Follow.class));
+		assertEquals(followers, user("star").getFollowersCount());
+		for (int i = 0; i < followers; i++) {
+			assertEquals(1, user("user-" + i).getFollowingCount());
+		}
+	}
+
+	@Test
+	void countsMatchTheEdgesAfterAFollowUnfollowStorm() throws Exception {
+		int users = 20;
+		seedUsers(users);
+
+		List<Callable<Void>> tasks = new ArrayList<>();
+		for (int i = 0; i < 4000; i++) {
+			tasks.add(() -> {
+				ThreadLocalRandom random = ThreadLocalRandom.current();
+				String followerId = "user-" + random.nextInt(users);
+				String followeeId = "user-" + random.nextInt(users);
+				if (random.nextBoolean()) {
+					followRepository.follow(followerId, followeeId);
+				} else {
+					followRepository.unfollow(followerId, followeeId);
+				}
+				return null;
+			});
+		}
+		report("follow/unfollow", runAll(tasks), tasks.size());
+
+		for (int i = 0; i < users; i++) {
+			String userId = "user-" + i;
+			User user = user(userId);
+			assertEquals(mongoTemplate.count(Query.query(Criteria.where("followeeId").is(userId)), Follow.class),
+					user.getFollowersCount(), "followers of " + userId);
+			assertEquals(mongoTemplate.count(Query.query(Criteria.where("followerId").is(userId)), Follow.class),
+					user.getFollowingCount(), "following of " + userId);
+		}
+	}
+
+	private static long runAll(List<Callable<Void>> tasks) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			long started = System.nanoTime();
+			for (Future<Void> result : executor.invokeAll(tasks)) {
+				result.get();
+			}
+			return System.nanoTime() - started;
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	private static void report(String operation, long nanos, int operations) {
+		log.info("{} {} operations on {} threads in {} ms ({} ops/s)", operations, operation, THREADS,
+				TimeUnit.NANOSECONDS.toMillis(nanos), Math.round(operations / (nanos / 1e9)));
+	}
+
+	private static void seedUsers(int count) {
+		for (int i = 0; i < count; i++) {
+			seedUser("user-" + i);
+		}
+	}
+
+	private static void seedUser(String id) {
+		User user = new User();
+		user.setId(id);
+		user.setName(id);
+		user.setEmail(id + "@example.com");
+		mongoTemplate.insert(user);
+	}
+
+	private static User user(String id) {
+		return mongoTemplate.findById(id, User.class);
+	}
+}
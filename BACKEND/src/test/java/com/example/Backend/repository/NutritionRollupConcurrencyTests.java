@@ -0,0 +1,134 @@
+package com.example.Backend.repository;
+
+import com.example.Backend.config.MongoIndexInitializer;
+import com.example.Backend.model.FoodLog;
+import com.example.Backend.model.NutritionRollup;
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+// first writes racing into periods that have no rollup yet, each must be counted exactly once; runs against a
+// plain local mongod like FollowRepositoryConcurrencyTests
+class NutritionRollupConcurrencyTests {
+
+	private static final String MONGO_URI = System.getProperty("test.mongodb.uri", "mongodb://localhost:27017");
+	private static final boolean MONGO_REQUIRED = Boolean.getBoolean("test.mongodb.required");
+	private static final int THREADS = 16;
+
+	private static MongoClient client;
+	private static MongoTemplate mongoTemplate;
+	private static NutritionRollupRepository rollupRepository;
+
+	@BeforeAll
+	static void connect() {
+		client = MongoClients.create(MongoClientSettings.builder()
+				.applyConnectionString(new ConnectionString(MONGO_URI))
+				.applyToClusterSettings(cluster -> cluster.serverSelectionTimeout(2, TimeUnit.SECONDS))
+				.build());
+		boolean reachable;
+		try {
+			client.getDatabase("admin").runCommand(new Document("ping", 1));
+			reachable = true;
+		} catch (MongoException e) {
+			reachable = false;
+		}
+		if (MONGO_REQUIRED) {
+			assertTrue(reachable, "No mongod reachable at " + MONGO_URI);
+		}
+		assumeTrue(reachable, "No mongod reachable at " + MONGO_URI);
+
+		mongoTemplate = new MongoTemplate(client, "nutrition_rollup_test");
+		mongoTemplate.getDb().drop();
+		new MongoIndexInitializer(mongoTemplate).ensureIndexes();
+		rollupRepository = new NutritionRollupRepository(mongoTemplate);
+	}
+
+	@AfterAll
+	static void disconnect() {
+		if (mongoTemplate != null) {
+			mongoTemplate.getDb().drop();
+		}
+		if (client != null) {
+			client.close();
+		}
+	}
+
+	@BeforeEach
+	void clear() {
+		mongoTemplate.remove(new Query(), NutritionRollup.class);
+		mongoTemplate.remove(new Query(), FoodLog.class);
+	}
+
+	@Test
+	void concurrentFirstWritesOfAPeriodAreAllCounted() throws Exception {
+		// the week of March 31st reaches into April, so its writes start two months and one week
+		LocalDate monday = LocalDate.of(2025, 3, 31);
+		int writes = 400;
+
+		CountDownLatch start = new CountDownLatch(1);
+		List<Callable<Void>> tasks = new ArrayList<>();
+		for (int i = 0; i < writes; i++) {
+			LocalDate date = monday.plusDays(i % 7);
+			tasks.add(() -> {
+				start.await();
+				rollupRepository.applyDelta("user", date, 100, null, 1, 1, 1);
+				return null;
+			});
+		}
+		runAll(tasks, start);
+
+		NutritionRollup week = rollup(NutritionRollup.WEEK, monday);
+		assertEquals(writes * 100, week.getCalories());
+		assertEquals(writes, week.getGlasses());
+		assertEquals(writes, week.getDays().values().stream().mapToInt(NutritionRollup.Day::getFoodEntries).sum());
+
+		NutritionRollup march = rollup(NutritionRollup.MONTH, LocalDate.of(2025, 3, 1));
+		NutritionRollup april = rollup(NutritionRollup.MONTH, LocalDate.of(2025, 4, 1));
+		assertEquals(writes * 100, march.getCalories() + april.getCalories());
+		assertEquals(week.getDays().get(monday.toString()).getCalories(), march.getCalories());
+		assertEquals(3, mongoTemplate.count(new Query(), NutritionRollup.class));
+	}
+
+	private static void runAll(List<Callable<Void>> tasks, CountDownLatch start) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			List<Future<Void>> results = new ArrayList<>();
+			for (Callable<Void> task : tasks) {
+				results.add(executor.submit(task));
+			}
+			start.countDown();
+			for (Future<Void> result : results) {
+				result.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	private static NutritionRollup rollup(String period, LocalDate start) {
+		return mongoTemplate.findOne(NutritionRollupRepository.byPeriod("user", period, start), NutritionRollup.class);
+	}
+}
@@ -0,0 +1,98 @@
+package com.example.Backend.repository;
+
+import com.example.Backend.model.FoodLog;
+import com.example.Backend.model.Nutrient;
+import com.example.Backend.model.NutrientTotals;
+import com.example.Backend.model.NutritionRollup;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class NutritionRollupRepositoryTests {
+
+	@Test
+	void weeksStartOnTheIsoMonday() {
+		LocalDate monday = LocalDate.of(2025, 3, 3);
+
+		assertEquals(monday, NutritionRollupRepository.periodStart(NutritionRollup.WEEK, monday));
+		assertEquals(monday, NutritionRollupRepository.periodStart(NutritionRollup.WEEK, LocalDate.of(2025, 3, 9)));
+		assertEquals(LocalDate.of(2025, 3, 10),
+				NutritionRollupRepository.periodStart(NutritionRollup.WEEK, LocalDate.of(2025, 3, 10)));
+		// a week reaching back into the previous month and year
+		assertEquals(LocalDate.of(2024, 12, 30),
+				NutritionRollupRepository.periodStart(NutritionRollup.WEEK, LocalDate.of(2025, 1, 1)));
+		assertEquals(LocalDate.of(2025, 3, 9), NutritionRollupRepository.periodEnd(NutritionRollup.WEEK, monday));
+	}
+
+	@Test
+	void monthsRunFromTheFirstToTheLastDay() {
+		assertEquals(LocalDate.of(2025, 3, 1),
+				NutritionRollupRepository.periodStart(NutritionRollup.MONTH, LocalDate.of(2025, 3, 31)));
+		assertEquals(LocalDate.of(2024, 2, 29),
+				NutritionRollupRepository.periodEnd(NutritionRollup.MONTH, LocalDate.of(2024, 2, 1)));
+		assertEquals(LocalDate.of(2025, 2, 28),
+				NutritionRollupRepository.periodEnd(NutritionRollup.MONTH, LocalDate.of(2025, 2, 1)));
+		assertEquals(LocalDate.of(2025, 12, 31),
+				NutritionRollupRepository.periodEnd(NutritionRollup.MONTH, LocalDate.of(2025, 12, 1)));
+	}
+
+	@Test
+	void addSumsEveryWriteIntoItsDayAndThePeriod() {
+		LocalDate monday = LocalDate.of(2025, 3, 3);
+		NutritionRollup rollup = NutritionRollupRepository.newRollup("user", NutritionRollup.WEEK, monday);
+
+		NutritionRollupRepository.add(rollup, monday, 500, foodLog(500, 20.0), 0, 1, 0);
+		NutritionRollupRepository.add(rollup, monday, 0, null, 3, 0, 1);
+		NutritionRollupRepository.add(rollup, monday.plusDays(2), 700, foodLog(700, 30.0), 0, 1, 0);
+
+		assertEquals(1200, rollup.getCalories());
+		assertEquals(3, rollup.getGlasses());
+		assertEquals(50, rollup.getNutrients().get(Nutrient.PROTEIN));
+		NutritionRollup.Day day = rollup.getDays().get("2025-03-03");
+		assertEquals(500, day.getCalories());
+		assertEquals(3, day.getGlasses());
+		assertEquals(1, day.getFoodEntries());
+		assertEquals(1, day.getWaterEntries());
+		assertEquals(20, day.getNutrients().get(Nutrient.PROTEIN));
+	}
+
+	@Test
+	void aDeleteDeltaLeavesTheDayWithoutEntries() {
+		LocalDate date = LocalDate.of(2025, 3, 4);
+		NutritionRollup rollup = NutritionRollupRepository.newRollup("user", NutritionRollup.MONTH,
+				NutritionRollupRepository.periodStart(NutritionRollup.MONTH, date));
+		NutritionRollupRepository.add(rollup, date, 500, foodLog(500, 20.0), 0, 1, 0);
+		NutritionRollupRepository.add(rollup, date, -500, null, 0, -1, 0);
+
+		NutritionRollup.Day day = rollup.getDays().get(date.toString());
+		assertEquals(0, day.getCalories());
+		assertEquals(0, day.getFoodEntries());
+		assertEquals(0, rollup.getCalories());
+	}
+
+	@Test
+	void deltaUpdateIncrementsThePeriodAndTheDay() {
+		Document inc = (Document) NutritionRollupRepository.deltaUpdate(LocalDate.of(2025, 3, 4), 500,
+				NutrientTotals.of(foodLog(500, 20.0)), 0, 1, 0)
+				.getUpdateObject().get("$inc");
+
+		assertEquals(500, inc.get("calories"));
+		assertEquals(500, inc.get("days.2025-03-04.calories"));
+		assertEquals(1, inc.get("days.2025-03-04.foodEntries"));
+		assertEquals(20.0, inc.get("nutrients.protein"));
+		assertEquals(20.0, inc.get("days.2025-03-04.nutrients.protein"));
+		// nutrients that did not change are left alone
+		assertFalse(inc.containsKey("nutrients.fat"));
+	}
+
+	private static FoodLog foodLog(int calories, Double protein) {
+		FoodLog foodLog = new FoodLog();
+		foodLog.setCalories(calories);
+		foodLog.setProtein(protein);
+		return foodLog;
+	}
+}
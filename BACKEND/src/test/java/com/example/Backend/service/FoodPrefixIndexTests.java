@@ -0,0 +1,78 @@
+package com.example.Backend.service;
+
+import com.example.Backend.dto.FoodSuggestionDTO;
+import com.example.Backend.model.Food;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FoodPrefixIndexTests {
+
+	private final FoodPrefixIndex index = FoodPrefixIndex.build(List.of(
+			food("1", "Rice + Curry", 600),
+			food("2", "Fried Rice", 450),
+			food("3", "Rice", 200),
+			food("4", "Chicken Curry", 500),
+			food("5", "Crème brûlée", 350)));
+
+	@Test
+	void matchesAnyWordOfTheName() {
+		assertEquals(List.of("Rice", "Rice + Curry", "Fried Rice"), names(index.search("ric", Map.of(), 10)));
+		assertEquals(List.of("Rice + Curry", "Chicken Curry"), names(index.search("curr", Map.of(), 10)));
+	}
+
+	@Test
+	void matchesAcrossWordsIgnoringCaseAccentsAndPunctuation() {
+		assertEquals(List.of("Rice + Curry"), names(index.search("RICE cu", Map.of(), 10)));
+		assertEquals(List.of("Crème brûlée"), names(index.search("creme bru", Map.of(), 10)));
+	}
+
+	@Test
+	void ranksTheUsersMostLoggedFoodsFirst() {
+		List<FoodSuggestionDTO> results = index.search("rice", Map.of("fried rice", 7, "rice curry", 2), 2);
+
+		assertEquals(List.of("Fried Rice", "Rice + Curry"), names(results));
+		assertEquals(7, results.get(0).getTimesLogged());
+	}
+
+	@Test
+	void ranksLoggedFoodsBeyondTheCandidateCap() {
+		List<Food> catalog = new ArrayList<>();
+		for (int i = 0; i < FoodPrefixIndex.MAX_CANDIDATES; i++) {
+			catalog.add(food(String.valueOf(i), String.format("Rice %04d", i), 100));
+		}
+		catalog.add(food("logged", "Rice with beans", 300));
+		catalog.add(food("word", "Brown rice with beans", 350));
+
+		List<FoodSuggestionDTO> results = FoodPrefixIndex.build(catalog)
+				.search("r", Map.of("rice with beans", 4, "brown rice with beans", 1), 3);
+
+		assertEquals(List.of("Rice with beans", "Brown rice with beans", "Rice 0000"), names(results));
+		assertEquals(4, results.get(0).getTimesLogged());
+	}
+
+	@Test
+	void returnsNothingForUnknownOrEmptyPrefixes() {
+		assertTrue(index.search("pizza", Map.of(), 10).isEmpty());
+		assertTrue(index.search(" + ", Map.of(), 10).isEmpty());
+		assertTrue(FoodPrefixIndex.empty().search("rice", Map.of(), 10).isEmpty());
+	}
+
+	private static Food food(String id, String name, int calories) {
+		Food food = new Food();
+		food.setId(id);
+		food.setName(name);
+		food.setServing("");
+		food.setCalories(calories);
+		return food;
+	}
+
+	private static List<String> names(List<FoodSuggestionDTO> suggestions) {
+		return suggestions.stream().map(FoodSuggestionDTO::getName).toList();
+	}
+}
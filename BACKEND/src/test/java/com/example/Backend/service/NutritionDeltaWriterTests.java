@@ -0,0 +1,122 @@
+package com.example.Backend.service;
+
+import com.example.Backend.model.DailyDeltas;
+import com.example.Backend.model.DailyTotals;
+import com.example.Backend.model.FoodLog;
+import com.example.Backend.model.NutrientTotals;
+import com.example.Backend.model.WaterLog;
+import com.example.Backend.repository.DailyTotalsRepository;
+import com.example.Backend.repository.NutritionRollupRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class NutritionDeltaWriterTests {
+
+	private static final LocalDate MONDAY = LocalDate.of(2025, 3, 3);
+
+	@Test
+	void appliesTheTotalsAndRollupsOfEveryDay() {
+		Totals totals = new Totals();
+		Rollups rollups = new Rollups(null);
+
+		new NutritionDeltaWriter(totals, rollups).applyDeltas("user",
+				DailyDeltas.of(List.of(foodLog(MONDAY, 500), foodLog(MONDAY.plusDays(1), 300)),
+						List.of(waterLog(MONDAY, 2))));
+
+		assertEquals(800, totals.calories);
+		assertEquals(2, totals.glasses);
+		assertEquals(800, rollups.calories);
+		assertEquals(2, rollups.glasses);
+	}
+
+	@Test
+	void aFailedWriteTakesBackExactlyTheWritesBeforeIt() {
+		Totals totals = new Totals();
+		// the rollups of the second day fail, after both days' totals and the first day's rollups were written
+		Rollups rollups = new Rollups(MONDAY.plusDays(1));
+		RuntimeException failure = new IllegalStateException("rollups unavailable");
+		rollups.failure = failure;
+
+		RuntimeException thrown = assertThrows(RuntimeException.class,
+				() -> new NutritionDeltaWriter(totals, rollups).applyDeltas("user",
+						DailyDeltas.of(List.of(foodLog(MONDAY, 500), foodLog(MONDAY.plusDays(1), 300)),
+								List.of(waterLog(MONDAY.plusDays(1), 3)))));
+
+		assertSame(failure, thrown);
+		assertEquals(0, totals.calories);
+		assertEquals(0, totals.glasses);
+		assertEquals(0, totals.entries);
+		assertEquals(0, rollups.calories);
+	}
+
+	private static FoodLog foodLog(LocalDate date, int calories) {
+		FoodLog foodLog = new FoodLog();
+		foodLog.setDate(date);
+		foodLog.setMealType("lunch");
+		foodLog.setCalories(calories);
+		return foodLog;
+	}
+
+	private static WaterLog waterLog(LocalDate date, int glasses) {
+		WaterLog waterLog = new WaterLog();
+		waterLog.setDate(date);
+		waterLog.setGlasses(glasses);
+		return waterLog;
+	}
+
+	private static final class Totals extends DailyTotalsRepository {
+
+		private int calories;
+		private int glasses;
+		private int entries;
+
+		private Totals() {
+			super(null, null, null);
+		}
+
+		@Override
+		public DailyTotals applyFoodDelta(String userId, LocalDate date, Map<String, Integer> mealCalories,
+				NutrientTotals nutrients, int entries) {
+			calories += mealCalories.values().stream().mapToInt(Integer::intValue).sum();
+			this.entries += entries;
+			return new DailyTotals();
+		}
+
+		@Override
+		public DailyTotals applyWaterDelta(String userId, LocalDate date, int glasses, int entries) {
+			this.glasses += glasses;
+			this.entries += entries;
+			return new DailyTotals();
+		}
+	}
+
+	private static final class Rollups extends NutritionRollupRepository {
+
+		private final LocalDate failOn;
+		private RuntimeException failure;
+		private int calories;
+		private int glasses;
+
+		private Rollups(LocalDate failOn) {
+			super(null);
+			this.failOn = failOn;
+		}
+
+		@Override
+		public void applyDelta(String userId, LocalDate date, int calories, NutrientTotals nutrients, int glasses,
+				int foodEntries, int waterEntries) {
+			if (date.equals(failOn) && calories > 0) {
+				throw failure;
+			}
+			this.calories += calories;
+			this.glasses += glasses;
+		}
+	}
+}
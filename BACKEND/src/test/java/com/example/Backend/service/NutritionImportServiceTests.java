@@ -0,0 +1,121 @@
+package com.example.Backend.service;
+
+import com.example.Backend.dto.FoodLogDTO;
+import com.example.Backend.dto.WaterLogDTO;
+import com.example.Backend.model.FoodLog;
+import com.example.Backend.model.WaterLog;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class NutritionImportServiceTests {
+
+	private static final int COLUMNS = 11;
+	private static final int LEGACY_COLUMNS = 6;
+
+	@Test
+	void splitsQuotedFieldsWithSeparatorsQuotesAndLineBreaks() {
+		assertEquals(List.of("food", "2025-03-03", "lunch", "Rice, \"fried\"", "450", ""),
+				NutritionImportService.splitCsv("food,2025-03-03,lunch,\"Rice, \"\"fried\"\"\",450,"));
+		assertEquals(List.of("a\nb", ""), NutritionImportService.splitCsv("\"a\nb\","));
+		assertEquals(List.of(""), NutritionImportService.splitCsv(""));
+	}
+
+	@Test
+	void rejectsAnUnterminatedQuote() {
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+				() -> NutritionImportService.splitCsv("food,2025-03-03,lunch,\"Rice,450"));
+
+		assertEquals("Unterminated quoted field", e.getMessage());
+	}
+
+	@Test
+	void parsesFoodAndWaterRows() {
+		FoodLogDTO food = (FoodLogDTO) NutritionImportService.parseCsv("food,2025-03-03,lunch,Rice,450,,9.5,,,,",
+				COLUMNS);
+		assertEquals(LocalDate.of(2025, 3, 3), food.getDate());
+		assertEquals("Rice", food.getFoodName());
+		assertEquals(450, food.getCalories());
+		assertEquals(9.5, food.getProtein());
+		assertNull(food.getCarbs());
+
+		WaterLogDTO water = (WaterLogDTO) NutritionImportService.parseCsv("water,2025-03-03,,,,3", LEGACY_COLUMNS);
+		assertEquals(3, water.getGlasses());
+	}
+
+	@Test
+	void reportsMalformedRows() {
+		assertEquals("Expected 11 columns but found 6", assertThrows(IllegalArgumentException.class,
+				() -> NutritionImportService.parseCsv("water,2025-03-03,,,,3", COLUMNS)).getMessage());
+		assertEquals("Invalid date format. Use YYYY-MM-DD.", assertThrows(IllegalArgumentException.class,
+				() -> NutritionImportService.parseCsv("water,03/03/2025,,,,3", LEGACY_COLUMNS)).getMessage());
+		assertEquals("Invalid number: many", assertThrows(IllegalArgumentException.class,
+				() -> NutritionImportService.parseCsv("water,2025-03-03,,,,many", LEGACY_COLUMNS)).getMessage());
+		assertEquals("Type must be food or water", assertThrows(IllegalArgumentException.class,
+				() -> NutritionImportService.parseCsv("snack,2025-03-03,,,,", LEGACY_COLUMNS)).getMessage());
+	}
+
+	@Test
+	void readsWhatTheExportWrote() throws IOException {
+		FoodLog pasta = foodLog("Pasta \"al forno\",\nwith cheese", 800, 30.0);
+		FoodLog salad = foodLog("Salad", 150, null);
+		WaterLog water = new WaterLog();
+		water.setDate(LocalDate.of(2025, 3, 3));
+		water.setGlasses(4);
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (NutritionExportService.CsvRowWriter rows = new NutritionExportService.CsvRowWriter(out)) {
+			rows.food(pasta);
+			rows.food(salad);
+			rows.water(water);
+		}
+
+		BufferedReader reader = new BufferedReader(new StringReader(out.toString(StandardCharsets.UTF_8)));
+		reader.readLine();
+		List<Object> entries = new ArrayList<>();
+		String line;
+		while ((line = reader.readLine()) != null) {
+			entries.add(NutritionImportService.parseCsv(NutritionImportService.readQuotedLineBreaks(reader, line),
+					COLUMNS));
+		}
+
+		assertEquals(3, entries.size());
+		FoodLogDTO first = (FoodLogDTO) entries.get(0);
+		assertEquals(pasta.getFoodName(), first.getFoodName());
+		assertEquals(800, first.getCalories());
+		assertEquals(30.0, first.getProtein());
+		assertEquals("Salad", ((FoodLogDTO) entries.get(1)).getFoodName());
+		assertEquals(4, ((WaterLogDTO) entries.get(2)).getGlasses());
+	}
+
+	@Test
+	void stopsTakingInLinesAtTheEndOfTheUpload() throws IOException {
+		BufferedReader reader = new BufferedReader(new StringReader("more\n"));
+
+		String record = NutritionImportService.readQuotedLineBreaks(reader, "food,2025-03-03,lunch,\"Rice");
+
+		assertEquals("food,2025-03-03,lunch,\"Rice\nmore", record);
+		assertThrows(IllegalArgumentException.class, () -> NutritionImportService.splitCsv(record));
+	}
+
+	private static FoodLog foodLog(String foodName, int calories, Double protein) {
+		FoodLog foodLog = new FoodLog();
+		foodLog.setDate(LocalDate.of(2025, 3, 3));
+		foodLog.setMealType("dinner");
+		foodLog.setFoodName(foodName);
+		foodLog.setCalories(calories);
+		foodLog.setProtein(protein);
+		return foodLog;
+	}
+}
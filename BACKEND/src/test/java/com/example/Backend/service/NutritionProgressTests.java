@@ -0,0 +1,129 @@
+package com.example.Backend.service;
+
+import com.example.Backend.model.FoodLog;
+import com.example.Backend.model.Nutrient;
+import com.example.Backend.model.NutrientTotals;
+import com.example.Backend.model.NutritionRollup;
+import com.example.Backend.repository.NutritionGoals;
+import com.example.Backend.repository.NutritionRollupRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// weekly and monthly progress as derived from the days of the rollups
+class NutritionProgressTests {
+
+	private static final LocalDate MONDAY = LocalDate.of(2025, 3, 3);
+	private static final LocalDate SUNDAY = MONDAY.plusDays(6);
+
+	@Test
+	void goalCountsAndStatsCoverTheLoggedDaysOfTheRange() {
+		NutritionRollup week = NutritionRollupRepository.newRollup("user", NutritionRollup.WEEK, MONDAY);
+		logFood(week, MONDAY, 1800, 40.0);
+		logFood(week, MONDAY.plusDays(1), 2500, 60.0);
+		logFood(week, MONDAY.plusDays(2), 1200, 20.0);
+		logWater(week, MONDAY, 8);
+		logWater(week, MONDAY.plusDays(1), 5);
+
+		Map<String, Object> response = progress(List.of(week), MONDAY, SUNDAY);
+
+		// the four unlogged days count as within the calorie goal, as they always have
+		assertEquals(6, response.get("daysCalorieGoalMet"));
+		assertEquals(1, response.get("daysWaterGoalMet"));
+		Map<?, ?> calorieStats = (Map<?, ?>) response.get("calorieStats");
+		assertEquals(5500L, calorieStats.get("total"));
+		assertEquals(3L, calorieStats.get("daysLogged"));
+		assertEquals(1833L, calorieStats.get("mean"));
+		assertEquals(1200, calorieStats.get("min"));
+		assertEquals(2500, calorieStats.get("max"));
+		Map<?, ?> waterStats = (Map<?, ?>) response.get("waterStats");
+		assertEquals(2L, waterStats.get("daysLogged"));
+		assertEquals(5, waterStats.get("min"));
+		// nutrients are averaged over the days with food
+		assertEquals(40, ((NutrientTotals) response.get("averageNutrients")).get(Nutrient.PROTEIN));
+		assertEquals(120, ((NutrientTotals) response.get("totalNutrients")).get(Nutrient.PROTEIN));
+	}
+
+	@Test
+	void aDayWhoseEntriesWereAllDeletedIsNotLogged() {
+		NutritionRollup week = NutritionRollupRepository.newRollup("user", NutritionRollup.WEEK, MONDAY);
+		logFood(week, MONDAY, 1500, null);
+		logFood(week, MONDAY.plusDays(1), 900, null);
+		NutritionRollupRepository.add(week, MONDAY.plusDays(1), -900, null, 0, -1, 0);
+
+		Map<?, ?> calorieStats = (Map<?, ?>) progress(List.of(week), MONDAY, SUNDAY).get("calorieStats");
+
+		assertEquals(1L, calorieStats.get("daysLogged"));
+		assertEquals(1500, calorieStats.get("min"));
+	}
+
+	@Test
+	void daysOfTheRollupOutsideTheRangeAreIgnored() {
+		// the month of March read for the week of March 3rd
+		NutritionRollup month = NutritionRollupRepository.newRollup("user", NutritionRollup.MONTH,
+				LocalDate.of(2025, 3, 1));
+		logFood(month, LocalDate.of(2025, 3, 2), 3000, null);
+		logFood(month, MONDAY, 1000, null);
+		logFood(month, SUNDAY.plusDays(1), 3000, null);
+
+		Map<String, Object> response = progress(List.of(month), MONDAY, SUNDAY);
+
+		assertEquals(7, ((Map<?, ?>) response.get("dailyCalories")).size());
+		assertEquals(1000L, ((Map<?, ?>) response.get("calorieStats")).get("total"));
+	}
+
+	@Test
+	void withoutAnyLogsTheStatsAreZero() {
+		Map<String, Object> response = progress(List.of(), MONDAY, SUNDAY);
+
+		Map<?, ?> calorieStats = (Map<?, ?>) response.get("calorieStats");
+		assertEquals(0L, calorieStats.get("daysLogged"));
+		assertEquals(0L, calorieStats.get("mean"));
+		assertEquals(0, calorieStats.get("min"));
+		assertEquals(0, ((NutrientTotals) response.get("averageNutrients")).get(Nutrient.PROTEIN));
+	}
+
+	private static Map<String, Object> progress(List<NutritionRollup> rollups, LocalDate from, LocalDate to) {
+		Map<LocalDate, Integer> caloriesByDate = new HashMap<>();
+		Map<LocalDate, Integer> glassesByDate = new HashMap<>();
+		Map<LocalDate, NutrientTotals> nutrientsByDate = new HashMap<>();
+		NutritionService.collectLoggedDays(rollups, from, to, caloriesByDate, glassesByDate, nutrientsByDate);
+		return NutritionService.progressResponse(goals(2000, 8), from, to, caloriesByDate, glassesByDate,
+				nutrientsByDate, "this week");
+	}
+
+	private static void logFood(NutritionRollup rollup, LocalDate date, int calories, Double protein) {
+		FoodLog foodLog = new FoodLog();
+		foodLog.setCalories(calories);
+		foodLog.setProtein(protein);
+		NutritionRollupRepository.add(rollup, date, calories, foodLog, 0, 1, 0);
+	}
+
+	private static void logWater(NutritionRollup rollup, LocalDate date, int glasses) {
+		NutritionRollupRepository.add(rollup, date, 0, null, glasses, 0, 1);
+	}
+
+	private static NutritionGoals goals(int calories, int glasses) {
+		return new NutritionGoals() {
+			@Override
+			public String getId() {
+				return "user";
+			}
+
+			@Override
+			public Integer getDailyCalorieGoal() {
+				return calories;
+			}
+
+			@Override
+			public Integer getDailyWaterGoal() {
+				return glasses;
+			}
+		};
+	}
+}
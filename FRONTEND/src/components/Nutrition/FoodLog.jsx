@@ -1,19 +1,38 @@
-import { useState, useEffect } from "react";
+import { useState, useEffect, useRef } from "react";
 import api from "../../utils/api";
 import { PlusCircle, Check, AlertCircle, Trash2 } from "lucide-react";
 
+// optional nutrients, sodium in milligrams and the rest in grams
+const NUTRIENTS = [
+  { name: "protein", label: "Protein (g)" },
+  { name: "carbs", label: "Carbs (g)" },
+  { name: "fat", label: "Fat (g)" },
+  { name: "fiber", label: "Fiber (g)" },
+  { name: "sodium", label: "Sodium (mg)" },
+];
+
+const emptyFoodLog = (date) => ({
+  mealType: "",
+  foodName: "",
+  calories: "",
+  protein: "",
+  carbs: "",
+  fat: "",
+  fiber: "",
+  sodium: "",
+  date,
+});
+
 const FoodLog = ({ userId, date, calorieGoal = 2000 }) => {
-  const [foodLog, setFoodLog] = useState({
-    mealType: "",
-    foodName: "",
-    calories: "",
-    date,
-  });
+  const [foodLog, setFoodLog] = useState(emptyFoodLog(date));
   const [message, setMessage] = useState("");
   const [status, setStatus] = useState(""); // "success" or "error"
   const [isLoading, setIsLoading] = useState(false);
   const [dailyCalories, setDailyCalories] = useState(0);
   const [recentLogs, setRecentLogs] = useState([]);
+  const [suggestions, setSuggestions] = useState([]);
+  const [frequentFoods, setFrequentFoods] = useState([]);
+  const pickedFood = useRef("");
 
   // Fetch daily calories and recent logs on mount
   useEffect(() => {
@@ -34,11 +53,56 @@ const FoodLog = ({ userId, date, calorieGoal = 2000 }) => {
     fetchNutritionData();
   }, [userId, date, message]);
 
+  // Fetch the foods this user logs most often for one-tap relogging
+  useEffect(() => {
+    const fetchFrequentFoods = async () => {
+      try {
+        const response = await api.get(
+          `/nutrition/food/${userId}/frequent?limit=5`
+        );
+        setFrequentFoods(response.data?.frequent || []);
+      } catch (err) {
+        console.error("Failed to fetch frequent foods:", err);
+      }
+    };
+
+    fetchFrequentFoods();
+  }, [userId, message]);
+
+  // Search the food catalog while the food name is typed
+  useEffect(() => {
+    const query = foodLog.foodName.trim();
+    if (query.length < 2 || foodLog.foodName === pickedFood.current) {
+      setSuggestions([]);
+      return;
+    }
+
+    const timer = setTimeout(async () => {
+      try {
+        const response = await api.get(
+          `/foods/search?q=${encodeURIComponent(query)}&userId=${userId}&limit=5`
+        );
+        setSuggestions(response.data || []);
+      } catch (err) {
+        setSuggestions([]);
+      }
+    }, 200);
+
+    return () => clearTimeout(timer);
+  }, [foodLog.foodName, userId]);
+
   // Handle input changes
   const handleChange = (e) => {
     setFoodLog({ ...foodLog, [e.target.name]: e.target.value });
   };
 
+  // Fill in name and calories from a catalog food
+  const handleSuggestion = (food) => {
+    pickedFood.current = food.name;
+    setFoodLog({ ...foodLog, foodName: food.name, calories: food.calories });
+    setSuggestions([]);
+  };
+
   // Handle food log submission
   const handleSubmit = async (e) => {
     e.preventDefault();
@@ -48,12 +112,31 @@ const FoodLog = ({ userId, date, calorieGoal = 2000 }) => {
       return;
     }
 
+    // leave out the nutrients that were not filled in
+    const entry = { ...foodLog };
+    NUTRIENTS.forEach(({ name }) => {
+      if (entry[name] === "") delete entry[name];
+    });
+    await submitFoodLog(entry);
+  };
+
+  // Log a frequent food again as it was logged before
+  const handleQuickLog = async (food) => {
+    await submitFoodLog({
+      mealType: food.mealType,
+      foodName: food.foodName,
+      calories: food.calories,
+      date,
+    });
+  };
+
+  const submitFoodLog = async (entry) => {
     setIsLoading(true);
     try {
-      const response = await api.post(`/nutrition/food/${userId}`, foodLog);
+      const response = await api.post(`/nutrition/food/${userId}`, entry);
       setMessage(response.data.message || "Food logged successfully!");
       setStatus(response.data.warning ? "warning" : "success");
-      setFoodLog({ mealType: "", foodName: "", calories: "", date });
+      setFoodLog(emptyFoodLog(date));
     } catch (err) {
       setMessage(err.response?.data || "Failed to log food");
       setStatus("error");
@@ -146,6 +229,28 @@ const FoodLog = ({ userId, date, calorieGoal = 2000 }) => {
         </div>
       )}
 
+      {/* Frequent Foods */}
+      {frequentFoods.length > 0 && (
+        <div className="mb-6">
+          <h3 className="text-sm font-medium text-gray-600 mb-2">
+            Log again
+          </h3>
+          <div className="flex flex-wrap gap-2">
+            {frequentFoods.map((food) => (
+              <button
+                key={`${food.foodName}-${food.mealType}-${food.calories}`}
+                onClick={() => handleQuickLog(food)}
+                disabled={isLoading}
+                className="px-3 py-1 rounded-full border border-gray-300 bg-gray-50 text-sm hover:bg-gray-100 transition-all"
+                title={`${food.mealType}, logged ${food.timesLogged} times`}
+              >
+                {food.foodName} · {food.calories} kcal
+              </button>
+            ))}
+          </div>
+        </div>
+      )}
+
       {/* Food Log Form */}
       <div className="space-y-4">
         <div>
@@ -184,8 +289,35 @@ const FoodLog = ({ userId, date, calorieGoal = 2000 }) => {
             value={foodLog.foodName}
             onChange={handleChange}
             placeholder="e.g., Grilled Chicken Salad"
+            autoComplete="off"
             className="w-full p-3 bg-gray-50 border border-gray-300 rounded-lg focus:ring-2 focus:ring-blue-500 focus:border-blue-500 transition-all"
           />
+          {suggestions.length > 0 && (
+            <ul className="mt-1 border border-gray-200 rounded-lg divide-y divide-gray-100 bg-white">
+              {suggestions.map((food) => (
+                <li key={food.id}>
+                  <button
+                    type="button"
+                    onClick={() => handleSuggestion(food)}
+                    className="w-full px-3 py-2 flex justify-between text-left hover:bg-gray-50"
+                  >
+                    <span>
+                      {food.name}
+                      {food.serving && (
+                        <span className="text-sm text-gray-500">
+                          {" "}
+                          ({food.serving})
+                        </span>
+                      )}
+                    </span>
+                    <span className="text-sm font-medium">
+                      {food.calories} kcal
+                    </span>
+                  </button>
+                </li>
+              ))}
+            </ul>
+          )}
         </div>
 
         <div>
@@ -206,6 +338,30 @@ const FoodLog = ({ userId, date, calorieGoal = 2000 }) => {
           />
         </div>
 
+        <div className="grid grid-cols-2 sm:grid-cols-5 gap-2">
+          {NUTRIENTS.map(({ name, label }) => (
+            <div key={name}>
+              <label
+                className="block text-xs font-medium text-gray-600 mb-1"
+                htmlFor={name}
+              >
+                {label}
+              </label>
+              <input
+                id={name}
+                type="number"
+                min="0"
+                step="0.1"
+                name={name}
+                value={foodLog[name]}
+                onChange={handleChange}
+                placeholder="optional"
+                className="w-full p-2 bg-gray-50 border border-gray-300 rounded-lg text-sm focus:ring-2 focus:ring-blue-500 focus:border-blue-500 transition-all"
+              />
+            </div>
+          ))}
+        </div>
+
         <button
           onClick={handleSubmit}
           disabled={isLoading}
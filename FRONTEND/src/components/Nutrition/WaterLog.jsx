@@ -46,7 +46,9 @@ const WaterLog = ({ userId, date, waterGoal = 8 }) => {
         glasses,
         date,
       });
-      setMessage(response.data.message || "Water logged successfully!");
+      setMessage(
+        response.data.warning || response.data.message || "Water logged successfully!"
+      );
       setStatus("success");
       setGlasses(1);
     } catch (err) {
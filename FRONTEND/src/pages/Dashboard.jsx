@@ -34,7 +34,7 @@ const Dashboard = () => {
       setLoading(true);
       const endpoint =
         activeTab === "daily"
-          ? `/nutrition/progress/daily/${user.id}?date=${date}`
+          ? `/nutrition/progress/daily/${user.id}?date=${date}&view=summary`
           : `/nutrition/progress/weekly/${user.id}?startDate=${date}`;
       console.log(
         `Fetching progress for user ${user.id}, endpoint ${endpoint}`